@@ -0,0 +1,84 @@
+package med.voll.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import med.voll.api.infra.admision.ClaseSolicitud;
+import med.voll.api.infra.admision.FiltroAdmision;
+import med.voll.api.infra.admision.LimiteAdaptativo;
+import med.voll.api.infra.errors.ContadorErrores;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Límites de concurrencia por clase de endpoint ({@code api.admision.autenticacion|lectura|escritura|transferencia.*}).
+ * El filtro va antes de Spring Security, para que una solicitud rechazada no llegue a validar el token.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.admision.habilitada", matchIfMissing = true)
+public class AdmisionConfiguration {
+
+    @Bean
+    @ConfigurationProperties("api.admision.autenticacion")
+    public ParametrosAdmision admisionAutenticacion() {
+        return new ParametrosAdmision();
+    }
+
+    @Bean
+    @ConfigurationProperties("api.admision.lectura")
+    public ParametrosAdmision admisionLectura() {
+        return new ParametrosAdmision();
+    }
+
+    @Bean
+    @ConfigurationProperties("api.admision.escritura")
+    public ParametrosAdmision admisionEscritura() {
+        return new ParametrosAdmision();
+    }
+
+    @Bean
+    @ConfigurationProperties("api.admision.transferencia")
+    public ParametrosAdmision admisionTransferencia() {
+        return new ParametrosAdmision();
+    }
+
+    @Bean
+    public FilterRegistrationBean<FiltroAdmision> filtroAdmision(ParametrosAdmision admisionAutenticacion,
+                                                                 ParametrosAdmision admisionLectura,
+                                                                 ParametrosAdmision admisionEscritura,
+                                                                 ParametrosAdmision admisionTransferencia,
+                                                                 ContadorErrores contadorErrores, MeterRegistry meterRegistry) {
+        FiltroAdmision filtro = new FiltroAdmision(Map.of(
+                ClaseSolicitud.AUTENTICACION, admisionAutenticacion.crearLimite(),
+                ClaseSolicitud.LECTURA, admisionLectura.crearLimite(),
+                ClaseSolicitud.ESCRITURA, admisionEscritura.crearLimite(),
+                ClaseSolicitud.TRANSFERENCIA, admisionTransferencia.crearLimite()
+        ), contadorErrores, meterRegistry);
+
+        FilterRegistrationBean<FiltroAdmision> registro = new FilterRegistrationBean<>(filtro);
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registro;
+    }
+
+    @Getter
+    @Setter
+    public static class ParametrosAdmision {
+        private int limiteInicial = 10;
+        private int limiteMinimo = 2;
+        private int limiteMaximo = 100;
+        private int cola = 50; // Solicitudes que pueden esperar un lugar
+        private Duration esperaMaxima = Duration.ofMillis(100);
+        private Duration latenciaObjetivo = Duration.ofMillis(500); // Por encima, el límite se reduce
+
+        LimiteAdaptativo crearLimite() {
+            return new LimiteAdaptativo(limiteInicial, limiteMinimo, limiteMaximo, cola, esperaMaxima, latenciaObjetivo);
+        }
+    }
+}
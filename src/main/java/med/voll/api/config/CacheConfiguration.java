@@ -0,0 +1,52 @@
+package med.voll.api.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    private final CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+
+    /**
+     * Cada cache se registra con su propia especificación de Caffeine (tamaño máximo y TTL).
+     * Se registran al arrancar para que Actuator publique sus métricas de aciertos,
+     * fallos y desalojos ({@code cache.gets}, {@code cache.evictions}).
+     * <p>
+     * Las escrituras e invalidaciones hechas dentro de una transacción se aplican tras el commit,
+     * para que una lectura concurrente no vuelva a cachear el valor anterior.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${api.cache.usuarios}") String specUsuarios,
+                                     @Value("${api.cache.medicos}") String specMedicos,
+                                     @Value("${api.cache.listado-medicos}") String specListadoMedicos,
+                                     @Value("${api.cache.busqueda-medicos}") String specBusquedaMedicos) {
+        caffeineCacheManager.registerCustomCache("usuarios", Caffeine.from(specUsuarios).recordStats().build());
+        caffeineCacheManager.registerCustomCache("medicos", Caffeine.from(specMedicos).recordStats().build());
+        caffeineCacheManager.registerCustomCache("listadoMedicos", Caffeine.from(specListadoMedicos).recordStats().build());
+        caffeineCacheManager.registerCustomCache("busquedaMedicos", Caffeine.from(specBusquedaMedicos).recordStats().build());
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    // Proporción de aciertos acumulada de cada cache (cache.hit.ratio), además de los contadores de Actuator.
+    // Recibe el CacheManager solo para crearse cuando las caches ya están registradas
+    @Bean
+    public MeterBinder proporcionAciertosCache(CacheManager cacheManager) {
+        return registry -> caffeineCacheManager.getCacheNames().forEach(nombre -> {
+            CaffeineCache cache = (CaffeineCache) caffeineCacheManager.getCache(nombre);
+            Gauge.builder("cache.hit.ratio", cache, c -> c.getNativeCache().stats().hitRate())
+                    .tag("cache", nombre)
+                    .register(registry);
+        });
+    }
+}
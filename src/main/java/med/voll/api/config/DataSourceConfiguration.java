@@ -0,0 +1,76 @@
+package med.voll.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import med.voll.api.infra.datasource.DataSourceLectura;
+import med.voll.api.infra.datasource.MonitorReplica;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Solo se activa cuando hay una réplica configurada en {@code api.datasource.replica.url}; sin ella
+ * se usa el DataSource autoconfigurado de Spring Boot.
+ * <p>
+ * Las transacciones {@code @Transactional(readOnly = true)} marcan su conexión como de solo lectura y el
+ * proxy la toma de la réplica; el resto va al primario. El proxy retrasa la obtención de la conexión
+ * física hasta la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+ * <p>
+ * Cada pool tiene su propio tamaño y keepalive ({@code spring.datasource.hikari.*} y
+ * {@code api.datasource.replica.hikari.*}), sus métricas de Hikari y su propio indicador en {@code /actuator/health}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.datasource.replica.url")
+public class DataSourceConfiguration {
+
+    // Mismas propiedades que el DataSource por defecto: spring.datasource.* y spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Usuario y clave de la réplica; si no se indican se reutilizan los del primario
+    @Bean
+    @ConfigurationProperties("api.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${api.datasource.replica.url}") String url,
+                                              @Value("${api.datasource.replica.username:}") String username,
+                                              @Value("${api.datasource.replica.password:}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public MonitorReplica monitorReplica(@Qualifier("primarioDataSource") DataSource primario,
+                                         @Qualifier("replicaDataSource") DataSource replica,
+                                         @Value("${api.datasource.replica.retraso-maximo:PT5S}") Duration retrasoMaximo) {
+        return new MonitorReplica(primario, replica, retrasoMaximo);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 MonitorReplica monitorReplica) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primario);
+        proxy.setReadOnlyDataSource(new DataSourceLectura(replica, primario, monitorReplica));
+        return proxy;
+    }
+}
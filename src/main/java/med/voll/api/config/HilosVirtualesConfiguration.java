@@ -0,0 +1,40 @@
+package med.voll.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import med.voll.api.infra.datasource.DataSourceAcotado;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Con {@code spring.threads.virtual.enabled=true} Tomcat atiende cada solicitud en un hilo virtual, y el ejecutor
+ * de las respuestas asíncronas (importación, exportación) también los usa. El bloqueo en JDBC ya no ocupa un hilo
+ * de plataforma: el límite pasa a ser el pool de conexiones, así que cada pool de Hikari se envuelve en un
+ * {@link DataSourceAcotado} de su mismo tamaño.
+ * <p>
+ * El driver no fija el hilo virtual a su portador: desde la 9.0 Connector/J protege conexiones, sentencias y
+ * resultados con {@code ReentrantLock} (la 8.3 aún usaba {@code synchronized} en cada llamada JDBC). HikariCP 5.1
+ * conserva algunos métodos {@code synchronized}, pero son secciones cortas sin E/S (registro de sentencias,
+ * arranque del pool). El código de la aplicación no usa {@code synchronized}, y BCrypt, que solo consume CPU,
+ * sigue en el pool de plataforma de {@code EjecutorLogin}. Para comprobarlo: {@code -Djdk.tracePinnedThreads=short}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class HilosVirtualesConfiguration {
+
+    // Estático: el post-procesador se registra antes que el resto de beans de la configuración
+    @Bean
+    public static BeanPostProcessor acotarConexiones() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    return DataSourceAcotado.de(hikari);
+                }
+                return bean;
+            }
+        };
+    }
+}
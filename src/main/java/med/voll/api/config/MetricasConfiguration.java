@@ -0,0 +1,37 @@
+package med.voll.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import med.voll.api.infra.metricas.ConsultasPorSolicitud;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas propias que no vienen con Actuator. Las de Hikari ({@code hikaricp.*}), las estadísticas de Hibernate
+ * ({@code hibernate.*}) y la latencia por endpoint ({@code http.server.requests}) las registra Spring Boot; todas
+ * se exponen en formato Prometheus en {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricasConfiguration {
+
+    @Bean
+    public ConsultasPorSolicitud consultasPorSolicitud(MeterRegistry meterRegistry) {
+        return new ConsultasPorSolicitud(meterRegistry);
+    }
+
+    // Dentro del control de admisión y antes de Spring Security, para contar también la carga del usuario del token
+    @Bean
+    public FilterRegistrationBean<ConsultasPorSolicitud> filtroConsultasPorSolicitud(ConsultasPorSolicitud consultasPorSolicitud) {
+        FilterRegistrationBean<ConsultasPorSolicitud> registro = new FilterRegistrationBean<>(consultasPorSolicitud);
+        registro.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 5);
+        return registro;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer inspectorConsultas(ConsultasPorSolicitud consultasPorSolicitud) {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, consultasPorSolicitud.inspector());
+    }
+}
@@ -0,0 +1,26 @@
+package med.voll.api.config;
+
+import med.voll.api.domain.medico.Especialidad;
+import med.voll.api.infra.serializacion.JsonSerializadoHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    // Los parámetros de consulta usan el mismo valor que el JSON ("cardiologia"), no el nombre del enum
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, Especialidad.class, Especialidad::fromValue);
+    }
+
+    // Antes que Jackson: los cuerpos ya serializados se copian tal cual
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new JsonSerializadoHttpMessageConverter());
+    }
+}
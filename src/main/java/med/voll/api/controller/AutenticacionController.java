@@ -1,15 +1,22 @@
 package med.voll.api.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import med.voll.api.domain.usuario.DatosAutenticacionUsuario;
+import med.voll.api.domain.usuario.DatosRefrescoToken;
 import med.voll.api.domain.usuario.Usuario;
-import med.voll.api.domain.usuario.UsuarioRepository;
-import med.voll.api.infra.security.TokenService;
+import med.voll.api.infra.errors.CodigoError;
+import med.voll.api.infra.errors.ContadorErrores;
+import med.voll.api.infra.security.EjecutorLogin;
+import med.voll.api.infra.security.LimitadorLogin;
+import med.voll.api.infra.security.RefreshTokenService;
+import med.voll.api.infra.security.RevocacionTokenService;
+import med.voll.api.infra.security.TokensEmitidos;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,56 +24,110 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/login")
 public class AutenticacionController {
 
     private final AuthenticationManager authenticationManager;
-    private final TokenService tokenService;
-    private final UsuarioRepository usuarioRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final EjecutorLogin ejecutorLogin;
+    private final LimitadorLogin limitadorLogin;
+    private final RevocacionTokenService revocacionTokenService;
+    private final ContadorErrores contadorErrores;
 
-    // Constructor para inyectar AuthenticationManager y TokenService
-    public AutenticacionController(AuthenticationManager authenticationManager, TokenService tokenService, UsuarioRepository usuarioRepository) {
+    // Constructor para inyectar AuthenticationManager, RefreshTokenService, el pool de verificación de claves, el limitador de intentos, la revocación y el contador de errores
+    public AutenticacionController(AuthenticationManager authenticationManager, RefreshTokenService refreshTokenService,
+                                   EjecutorLogin ejecutorLogin, LimitadorLogin limitadorLogin,
+                                   RevocacionTokenService revocacionTokenService, ContadorErrores contadorErrores) {
         this.authenticationManager = authenticationManager;
-        this.tokenService = tokenService;
-        this.usuarioRepository = usuarioRepository;
+        this.refreshTokenService = refreshTokenService;
+        this.ejecutorLogin = ejecutorLogin;
+        this.limitadorLogin = limitadorLogin;
+        this.revocacionTokenService = revocacionTokenService;
+        this.contadorErrores = contadorErrores;
     }
 
     /**
      * Endpoint para autenticar al usuario y generar un token JWT.
+     * La verificación de la clave (BCrypt) se ejecuta en {@link EjecutorLogin}, liberando el hilo de Tomcat;
+     * si su cola está llena se responde 429 sin llegar a calcular el hash. Antes, {@link LimitadorLogin} descarta
+     * con 429 los intentos que superan el ritmo permitido para la IP o el login, o que llegan durante un bloqueo.
      *
      * @param datosAutenticacionUsuario Datos de autenticación del usuario
      * @return ResponseEntity con el código de estado y el token de autenticación generado
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> autenticarUsuario(@RequestBody @Valid DatosAutenticacionUsuario datosAutenticacionUsuario) {
-        // Verificar si el usuario existe
-        Usuario usuario = (Usuario) usuarioRepository.findByLogin(datosAutenticacionUsuario.login());
-        if (usuario == null) {
-            throw new UsernameNotFoundException("Usuario no encontrado");
+    public CompletableFuture<ResponseEntity<?>> autenticarUsuario(@RequestBody @Valid DatosAutenticacionUsuario datosAutenticacionUsuario,
+                                                                  HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        long espera = limitadorLogin.segundosDeEspera(ip, datosAutenticacionUsuario.login());
+        if (espera > 0) {
+            // Sin consultar el usuario ni calcular el hash
+            return CompletableFuture.completedFuture(contadorErrores.respuestaReintentandoTras(CodigoError.ERR_TOO_MANY_LOGIN_ATTEMPTS, espera));
         }
+        return ejecutorLogin.ejecutar(() -> autenticar(datosAutenticacionUsuario, ip));
+    }
 
+    private ResponseEntity<?> autenticar(DatosAutenticacionUsuario datosAutenticacionUsuario, String ip) {
         // Crear el token de autenticación con el login y la contraseña del usuario
         Authentication authToken = new UsernamePasswordAuthenticationToken(
                 datosAutenticacionUsuario.login(),
                 datosAutenticacionUsuario.clave()
         );
 
-        // Autenticar al usuario (lanzará una BadCredentialsException si las credenciales son inválidas)
-        Authentication usuarioAutenticado = authenticationManager.authenticate(authToken);
+        // Autenticar al usuario (lanzará una BadCredentialsException si el usuario no existe o la clave es inválida)
+        Authentication usuarioAutenticado;
+        try {
+            usuarioAutenticado = authenticationManager.authenticate(authToken);
+        } catch (BadCredentialsException e) {
+            limitadorLogin.registrarFallo(ip, datosAutenticacionUsuario.login());
+            throw e;
+        }
+        limitadorLogin.registrarExito(ip, datosAutenticacionUsuario.login());
 
-        // Generar el JWT token con la información del usuario autenticado
-        String jwtToken = tokenService.gerarToken((Usuario) usuarioAutenticado.getPrincipal());
+        // Generar el JWT token y el refresh token con la información del usuario autenticado
+        TokensEmitidos tokens = refreshTokenService.emitir((Usuario) usuarioAutenticado.getPrincipal());
 
-        // Preparar la respuesta con los detalles de la autenticación exitosa
-        Map<String, Object> successResponse = new HashMap<>();
-        successResponse.put("code", "AUTH_SUCCESS");
-        successResponse.put("message", "Autenticación exitosa.");
-        successResponse.put("authenticationToken", jwtToken);
+        // Retornar la respuesta de éxito con los tokens generados
+        return ResponseEntity.ok(respuestaTokens("AUTH_SUCCESS", "Autenticación exitosa.", tokens));
+    }
 
-        // Retornar la respuesta de éxito con el token generado
-        return ResponseEntity.ok(successResponse);
+    /**
+     * Endpoint para obtener un nuevo JWT a partir de un refresh token, sin volver a verificar la clave.
+     * El refresh token presentado queda consumido y se entrega uno nuevo.
+     *
+     * @param datosRefrescoToken refresh token obtenido en el login o en un refresco anterior
+     * @return ResponseEntity con el nuevo token de autenticación y el nuevo refresh token
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refrescarToken(@RequestBody @Valid DatosRefrescoToken datosRefrescoToken) {
+        TokensEmitidos tokens = refreshTokenService.refrescar(datosRefrescoToken.refreshToken());
+        return ResponseEntity.ok(respuestaTokens("TOKEN_REFRESHED", "Token renovado exitosamente.", tokens));
+    }
+
+    /**
+     * Endpoint para cerrar sesión en todos los dispositivos: invalida los JWT y refresh tokens emitidos hasta ahora
+     * para el usuario autenticado. En este nodo aplica de inmediato; en los demás, en el siguiente refresco de
+     * {@link RevocacionTokenService}.
+     *
+     * @param authentication usuario del token presentado
+     * @return ResponseEntity 204 sin cuerpo
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> cerrarSesion(Authentication authentication) {
+        revocacionTokenService.revocar(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    private Map<String, Object> respuestaTokens(String code, String message, TokensEmitidos tokens) {
+        Map<String, Object> successResponse = new HashMap<>();
+        successResponse.put("code", code);
+        successResponse.put("message", message);
+        successResponse.put("authenticationToken", tokens.authenticationToken());
+        successResponse.put("refreshToken", tokens.refreshToken());
+        return successResponse;
     }
 
 }
\ No newline at end of file
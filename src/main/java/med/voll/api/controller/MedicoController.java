@@ -1,115 +1,173 @@
 package med.voll.api.controller;
 
-import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import med.voll.api.domain.direccion.DatosDireccion;
 import med.voll.api.domain.medico.*;
-import org.springframework.data.domain.Page;
+import med.voll.api.infra.exportacion.FormatoExportacion;
+import med.voll.api.infra.importacion.FormatoImportacion;
+import med.voll.api.infra.paginacion.CursorListado;
+import med.voll.api.infra.paginacion.ModoListado;
+import med.voll.api.infra.serializacion.JsonSerializado;
+import med.voll.api.infra.serializacion.PlantillaSobre;
+import med.voll.api.infra.serializacion.SerializadorJson;
+import med.voll.api.infra.versionado.EtagVersion;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/medicos")
 public class MedicoController {
 
-    private final MedicoRepository medicoRepository;
-
-    public MedicoController(MedicoRepository medicoRepository) {
-        this.medicoRepository = medicoRepository;
+    // Sobres de las respuestas de escritura, codificados una sola vez
+    private static final PlantillaSobre SOBRE_REGISTRO = PlantillaSobre.de("CREATED", "Médico registrado exitosamente.", "medico");
+    private static final PlantillaSobre SOBRE_ACTUALIZACION = PlantillaSobre.de("UPDATED", "Médico actualizado exitosamente.", "medico");
+
+    // El cliente puede guardar el detalle, pero lo revalida con el ETag en cada uso (304 si no cambió)
+    private static final CacheControl CACHE_DETALLE = CacheControl.noCache().cachePrivate();
+
+    // Largo de las columnas nombre y ciudad: un filtro mayor no puede coincidir con ningún médico
+    private static final int LARGO_MAXIMO_FILTRO = 100;
+
+    private final MedicoService medicoService;
+    private final SerializadorJson serializadorJson;
+    private final String modoListado;
+    private final CacheControl cacheListados;
+
+    public MedicoController(MedicoService medicoService, SerializadorJson serializadorJson,
+                            @Value("${api.listados.modo:pagina}") String modoListado,
+                            @Value("${api.cache.max-age-listados:PT30S}") Duration maxAgeListados) {
+        this.medicoService = medicoService;
+        this.serializadorJson = serializadorJson;
+        this.modoListado = modoListado;
+        // Privado: la respuesta depende del usuario autenticado y no debe guardarse en caches compartidas
+        this.cacheListados = CacheControl.maxAge(maxAgeListados).cachePrivate();
     }
 
 
+    // Modo "pagina": Page con totales (consulta + COUNT). Modo "slice": solo tieneSiguiente, sin COUNT.
+    // Las lecturas se sirven como JSON ya serializado: una página cacheada se codifica una sola vez
     @GetMapping
-    public ResponseEntity<Page<DatosListadoMedico>> listaMedicos(@PageableDefault(size = 2, page = 1, sort = "nombre") Pageable pageable) {
-        return ResponseEntity.ok(medicoRepository.findByActivoTrue(pageable).map(DatosListadoMedico::new));
+    public ResponseEntity<?> listaMedicos(@RequestParam(required = false) String modo,
+                                          @PageableDefault(size = 2, page = 1, sort = "nombre") Pageable pageable) {
+        if (ModoListado.resolver(modo, modoListado) == ModoListado.SLICE) {
+            return ResponseEntity.ok().cacheControl(cacheListados).body(serializadorJson.jsonDeCache(medicoService.listarSlice(pageable)));
+        }
+        return ResponseEntity.ok().cacheControl(cacheListados).body(serializadorJson.jsonDeCache(medicoService.listar(pageable)));
     }
 
-    @PostMapping
-    public ResponseEntity<Map<String, Object>> registraMedico(@Valid @RequestBody DatosRegistroMedico datosRegistroMedico, UriComponentsBuilder uriComponentsBuilder) {
-        // Verificar si el médico ya está registrado
-        if (medicoRepository.existsByEmailAndDocumento(datosRegistroMedico.email(), datosRegistroMedico.documento())) {
-            throw new IllegalStateException("ERR_DUPLICATE_RECORD"); // Lanza la excepción para manejarla en el global
-        }
+    // Listado por cursor: "cursor" vacío para el primer bloque, luego el "siguienteCursor" recibido
+    @GetMapping(params = "cursor")
+    public ResponseEntity<JsonSerializado> listaMedicosPorCursor(@RequestParam String cursor,
+                                                                 @RequestParam(name = "tamano", defaultValue = "2") int tamano,
+                                                                 @RequestParam(defaultValue = "false") boolean total) {
+        return ResponseEntity.ok().cacheControl(cacheListados)
+                .body(serializadorJson.jsonDeCache(medicoService.listarPorCursor(CursorListado.decodificar(cursor), tamano, total)));
+    }
 
-        // Guardar el médico
-        Medico medico = medicoRepository.save(new Medico(datosRegistroMedico));
+    // Búsqueda: filtros opcionales y combinables (nombre = prefijo), paginada por cursor como el listado
+    @GetMapping("/busqueda")
+    public ResponseEntity<JsonSerializado> buscaMedicos(@RequestParam(required = false) Especialidad especialidad,
+                                                        @RequestParam(required = false) String ciudad,
+                                                        @RequestParam(required = false) String nombre,
+                                                        @RequestParam(defaultValue = "") String cursor,
+                                                        @RequestParam(name = "tamano", defaultValue = "20") int tamano) {
+        FiltrosBusquedaMedico filtros = new FiltrosBusquedaMedico(especialidad, ciudad, nombre);
+        // Se comprueba ya normalizado: los espacios alrededor no cuentan
+        if (excedeLargo(filtros.prefijoNombre()) || excedeLargo(filtros.ciudad())) {
+            throw new FiltroBusquedaInvalidoException();
+        }
+        return ResponseEntity.ok().cacheControl(cacheListados)
+                .body(serializadorJson.jsonDeCache(medicoService.buscar(filtros, CursorListado.decodificar(cursor), tamano)));
+    }
 
-        // Crear el DTO para la respuesta usando el nuevo constructor
-        DatosRespuestaMedico datosRespuestaMedico = new DatosRespuestaMedico(medico);
+    @PostMapping
+    public ResponseEntity<JsonSerializado> registraMedico(@Valid @RequestBody DatosRegistroMedico datosRegistroMedico, UriComponentsBuilder uriComponentsBuilder) {
+        DatosRespuestaMedico datosRespuestaMedico = medicoService.registrar(datosRegistroMedico);
 
         // Construir la URL para el header
-        URI url = uriComponentsBuilder.path("/medicos/{id}").buildAndExpand(medico.getId()).toUri();
-
-        // Preparar la respuesta
-        Map<String, Object> successResponse = new HashMap<>();
-        successResponse.put("code", "CREATED");
-        successResponse.put("message", "Médico registrado exitosamente.");
-        successResponse.put("medico", datosRespuestaMedico);
+        URI url = uriComponentsBuilder.path("/medicos/{id}").buildAndExpand(datosRespuestaMedico.id()).toUri();
 
         // Retornar la respuesta con la URL en el header y el cuerpo con los datos
-        return ResponseEntity.created(url).body(successResponse);
+        return ResponseEntity.created(url).eTag(EtagVersion.de(datosRespuestaMedico.version())).body(serializadorJson.sobre(SOBRE_REGISTRO, datosRespuestaMedico));
     }
 
 
+    // Exportación completa en streaming desde un cursor JDBC: ?formato=ndjson|csv, activo=false para los inactivos, especialidad= para filtrar
+    @GetMapping("/exportacion")
+    public ResponseEntity<StreamingResponseBody> exportaMedicos(@RequestParam(defaultValue = "ndjson") String formato,
+                                                               @RequestParam(defaultValue = "true") boolean activo,
+                                                               @RequestParam(required = false) Especialidad especialidad) {
+        FormatoExportacion formatoExportacion = FormatoExportacion.fromValue(formato);
+        StreamingResponseBody cuerpo = salida -> medicoService.exportar(activo, especialidad, formatoExportacion, salida);
+
+        return ResponseEntity.ok()
+                .contentType(formatoExportacion.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("medicos." + formatoExportacion.toValue()).build().toString())
+                .body(cuerpo);
+    }
+
+    // Importación masiva: NDJSON o CSV en el cuerpo; responde con un reporte NDJSON, una línea por fila recibida
+    @PostMapping(path = "/importacion", consumes = {"application/x-ndjson", "text/csv"}, produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importaMedicos(HttpServletRequest request) {
+        FormatoImportacion formato = FormatoImportacion.fromMediaType(MediaType.parseMediaType(request.getContentType()));
+
+        // El archivo se lee y el reporte se escribe por lotes mientras avanza la importación
+        StreamingResponseBody reporte = salida -> medicoService.importar(request.getInputStream(), formato, salida);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(reporte);
+    }
+
     @PutMapping
-    @Transactional
-    public ResponseEntity<Map<String, Object>> actualizaMedico(@Valid @RequestBody DatosActualizaMedico datosActualizaMedico) {
-        // Buscar el médico por ID
-        Medico medico = medicoRepository.findById(datosActualizaMedico.id())
-                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND"));
-
-        // Actualizar los datos del médico
-        Medico medicoActualizado = medico.actualizarDatos(
-                datosActualizaMedico.nombre(),
-                datosActualizaMedico.documento(),
-                datosActualizaMedico.direccion()
-        );
-        medicoRepository.save(medicoActualizado);
-
-        // Preparar los datos de respuesta
-        Map<String, Object> successResponse = new HashMap<>();
-        successResponse.put("code", "UPDATED");
-        successResponse.put("message", "Médico actualizado exitosamente.");
-        successResponse.put("medico", new DatosRespuestaMedico(medico));
-
-        // Retornar la respuesta con el objeto actualizado y mensaje
-        return ResponseEntity.ok(successResponse);
+    public ResponseEntity<JsonSerializado> actualizaMedico(@Valid @RequestBody DatosActualizaMedico datosActualizaMedico,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Con If-Match solo se actualiza si nadie modificó el registro desde que el cliente lo leyó (412 si no)
+        DatosRespuestaMedico datosRespuestaMedico = medicoService.actualizar(datosActualizaMedico, EtagVersion.versionEsperada(ifMatch));
+
+        // Retornar la respuesta con el objeto actualizado, su nuevo ETag y mensaje
+        return ResponseEntity.ok().eTag(EtagVersion.de(datosRespuestaMedico.version())).body(serializadorJson.sobre(SOBRE_ACTUALIZACION, datosRespuestaMedico));
     }
 
 
     // DELETE Logico
     @DeleteMapping("/{id}")
-    @Transactional
-    public ResponseEntity<Map<String, String>> desactivaMedico(@PathVariable Long id) {
-        Medico medico = medicoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND")); // Manejado en el global
-
-        Medico medicoActualizado = medico.desactivarMedico(); // Generar nueva instancia con activo = false
-        medicoRepository.save(medicoActualizado); // Guardar el cambio en la base de datos
+    public ResponseEntity<Map<String, String>> desactivaMedico(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        medicoService.desactivar(id, EtagVersion.versionEsperada(ifMatch));
 
         // Respuesta de éxito
         return ResponseEntity.noContent().build(); // Código 204 sin cuerpo
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<DatosRespuestaMedico> retornaDatosMedico(@PathVariable Long id) {
-        Medico medico = medicoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND")); // Manejado en el global
-
-        // Crear el DTO para la respuesta
-        DatosRespuestaMedico datosRespuestaMedico = new DatosRespuestaMedico(medico);
+    public ResponseEntity<JsonSerializado> retornaDatosMedico(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Si el cliente ya tiene la versión actual basta con consultar la columna version: 304 sin cuerpo
+        if (ifNoneMatch != null) {
+            Long version = medicoService.version(id);
+            if (EtagVersion.coincide(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EtagVersion.de(version)).cacheControl(CACHE_DETALLE).build();
+            }
+        }
 
-        // Respuesta de éxito
-        return ResponseEntity.ok(datosRespuestaMedico);
+        DatosRespuestaMedico datosRespuestaMedico = medicoService.detalle(id);
+        return ResponseEntity.ok().eTag(EtagVersion.de(datosRespuestaMedico.version())).cacheControl(CACHE_DETALLE)
+                .body(serializadorJson.jsonDeCache(datosRespuestaMedico));
     }
 
 
@@ -129,4 +187,8 @@ public class MedicoController {
 
         return ResponseEntity.ok(successResponse);
     }*/
-}
\ No newline at end of file
+
+    private static boolean excedeLargo(String filtro) {
+        return filtro != null && filtro.length() > LARGO_MAXIMO_FILTRO;
+    }
+}
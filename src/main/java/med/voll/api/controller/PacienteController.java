@@ -1,113 +1,136 @@
 package med.voll.api.controller;
 
-import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import med.voll.api.domain.medico.DatosActualizaMedico;
-import med.voll.api.domain.medico.DatosRegistroMedico;
-import med.voll.api.domain.medico.DatosRespuestaMedico;
-import med.voll.api.domain.medico.Medico;
 import med.voll.api.domain.paciente.*;
-import org.springframework.data.domain.Page;
+import med.voll.api.infra.exportacion.FormatoExportacion;
+import med.voll.api.infra.importacion.FormatoImportacion;
+import med.voll.api.infra.paginacion.CursorListado;
+import med.voll.api.infra.paginacion.DatosPaginaCursor;
+import med.voll.api.infra.paginacion.ModoListado;
+import med.voll.api.infra.serializacion.JsonSerializado;
+import med.voll.api.infra.serializacion.PlantillaSobre;
+import med.voll.api.infra.serializacion.SerializadorJson;
+import med.voll.api.infra.versionado.EtagVersion;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
-import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/pacientes")
 public class PacienteController {
 
-    private final PacienteRepository pacienteRepository;
+    // Sobres de las respuestas de escritura, codificados una sola vez
+    private static final PlantillaSobre SOBRE_REGISTRO = PlantillaSobre.de("CREATED", "Paciente registrado exitosamente.", "paciente");
+    private static final PlantillaSobre SOBRE_ACTUALIZACION = PlantillaSobre.de("UPDATED", "Paciente actualizado exitosamente.", "paciente");
 
-    public PacienteController(PacienteRepository pacienteRepository) {
-        this.pacienteRepository = pacienteRepository;
+    private final PacienteService pacienteService;
+    private final SerializadorJson serializadorJson;
+    private final String modoListado;
+
+    public PacienteController(PacienteService pacienteService, SerializadorJson serializadorJson,
+                              @Value("${api.listados.modo:pagina}") String modoListado) {
+        this.pacienteService = pacienteService;
+        this.serializadorJson = serializadorJson;
+        this.modoListado = modoListado;
     }
 
+    // Modo "pagina": Page con totales (consulta + COUNT). Modo "slice": solo tieneSiguiente, sin COUNT
     @GetMapping
-    public ResponseEntity<Page<DatosListadoPaciente>> listadoPacientes(@PageableDefault(sort = "nombre") Pageable pageable) {
-        return ResponseEntity.ok(pacienteRepository.findByActivoTrue(pageable).map(DatosListadoPaciente::new));
+    public ResponseEntity<?> listadoPacientes(@RequestParam(required = false) String modo,
+                                              @PageableDefault(sort = "nombre") Pageable pageable) {
+        if (ModoListado.resolver(modo, modoListado) == ModoListado.SLICE) {
+            return ResponseEntity.ok(pacienteService.listarSlice(pageable));
+        }
+        return ResponseEntity.ok(pacienteService.listar(pageable));
+    }
+
+    // Listado por cursor: "cursor" vacío para el primer bloque, luego el "siguienteCursor" recibido
+    @GetMapping(params = "cursor")
+    public ResponseEntity<DatosPaginaCursor<DatosListadoPaciente>> listadoPacientesPorCursor(@RequestParam String cursor,
+                                                                                            @RequestParam(name = "tamano", defaultValue = "10") int tamano,
+                                                                                            @RequestParam(defaultValue = "false") boolean total) {
+        return ResponseEntity.ok(pacienteService.listarPorCursor(CursorListado.decodificar(cursor), tamano, total));
     }
 
     @PostMapping
-    public ResponseEntity<Map<String, Object>> registraPaciente(@Valid @RequestBody DatosRegistroPaciente datosRegistroPaciente, UriComponentsBuilder uriComponentsBuilder) {
-        // Verificar si el médico ya está registrado
-        if (pacienteRepository.existsByEmailAndDocumentoIdentidad(datosRegistroPaciente.email(), datosRegistroPaciente.documentoIdentidad())) {
-            throw new IllegalStateException("ERR_DUPLICATE_RECORD"); // Lanza la excepción para manejarla en el global
-        }
+    public ResponseEntity<JsonSerializado> registraPaciente(@Valid @RequestBody DatosRegistroPaciente datosRegistroPaciente, UriComponentsBuilder uriComponentsBuilder) {
+        DatosRespuestaPaciente datosRespuestaPaciente = pacienteService.registrar(datosRegistroPaciente);
 
-        // Guardar el médico
-        Paciente paciente = pacienteRepository.save(new Paciente(datosRegistroPaciente));
+        // Construir la URL para el header
+        URI url = uriComponentsBuilder.path("/pacientes/{id}").buildAndExpand(datosRespuestaPaciente.id()).toUri();
 
-        // Crear el DTO para la respuesta usando el nuevo constructor
-        DatosRespuestaPaciente datosRespuestaPaciente = new DatosRespuestaPaciente(paciente);
+        // Retornar la respuesta con la URL en el header y el cuerpo con los datos
+        return ResponseEntity.created(url).eTag(EtagVersion.de(datosRespuestaPaciente.version())).body(serializadorJson.sobre(SOBRE_REGISTRO, datosRespuestaPaciente));
+    }
 
-        // Construir la URL para el header
-        URI url = uriComponentsBuilder.path("/pacientes/{id}").buildAndExpand(paciente.getId()).toUri();
+    // Exportación completa en streaming desde un cursor JDBC: ?formato=ndjson|csv, activo=false para los inactivos
+    @GetMapping("/exportacion")
+    public ResponseEntity<StreamingResponseBody> exportaPacientes(@RequestParam(defaultValue = "ndjson") String formato,
+                                                                 @RequestParam(defaultValue = "true") boolean activo) {
+        FormatoExportacion formatoExportacion = FormatoExportacion.fromValue(formato);
+        StreamingResponseBody cuerpo = salida -> pacienteService.exportar(activo, formatoExportacion, salida);
+
+        return ResponseEntity.ok()
+                .contentType(formatoExportacion.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("pacientes." + formatoExportacion.toValue()).build().toString())
+                .body(cuerpo);
+    }
 
-        // Preparar la respuesta
-        Map<String, Object> successResponse = new HashMap<>();
-        successResponse.put("code", "CREATED");
-        successResponse.put("message", "Paciente registrado exitosamente.");
-        successResponse.put("paciente", datosRespuestaPaciente);
+    // Importación masiva: NDJSON o CSV en el cuerpo; responde con un reporte NDJSON, una línea por fila recibida
+    @PostMapping(path = "/importacion", consumes = {"application/x-ndjson", "text/csv"}, produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importaPacientes(HttpServletRequest request) {
+        FormatoImportacion formato = FormatoImportacion.fromMediaType(MediaType.parseMediaType(request.getContentType()));
 
-        // Retornar la respuesta con la URL en el header y el cuerpo con los datos
-        return ResponseEntity.created(url).body(successResponse);
+        // El archivo se lee y el reporte se escribe por lotes mientras avanza la importación
+        StreamingResponseBody reporte = salida -> pacienteService.importar(request.getInputStream(), formato, salida);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(reporte);
     }
 
     @PutMapping
-    @Transactional
-    public ResponseEntity<Map<String, Object>> actualizarPaciente(@Valid @RequestBody DatosActualizaPaciente datosActualizaPaciente) {
-        // Buscar el médico por ID
-        Paciente paciente = pacienteRepository.findById(datosActualizaPaciente.id())
-                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND"));
-
-        // Actualizar los datos del médico
-        Paciente pacienteActualizado = paciente.actualizarDatos(
-                datosActualizaPaciente.nombre(),
-                datosActualizaPaciente.documentoIdentidad(),
-                datosActualizaPaciente.direccion()
-        );
-        pacienteRepository.save(pacienteActualizado);
-
-        // Preparar los datos de respuesta
-        Map<String, Object> successResponse = new HashMap<>();
-        successResponse.put("code", "UPDATED");
-        successResponse.put("message", "Paciente actualizado exitosamente.");
-        successResponse.put("paciente", new DatosRespuestaPaciente(paciente));
-
-        // Retornar la respuesta con el objeto actualizado y mensaje
-        return ResponseEntity.ok(successResponse);
+    public ResponseEntity<JsonSerializado> actualizarPaciente(@Valid @RequestBody DatosActualizaPaciente datosActualizaPaciente,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Con If-Match solo se actualiza si nadie modificó el registro desde que el cliente lo leyó (412 si no)
+        DatosRespuestaPaciente datosRespuestaPaciente = pacienteService.actualizar(datosActualizaPaciente, EtagVersion.versionEsperada(ifMatch));
+
+        // Retornar la respuesta con el objeto actualizado, su nuevo ETag y mensaje
+        return ResponseEntity.ok().eTag(EtagVersion.de(datosRespuestaPaciente.version())).body(serializadorJson.sobre(SOBRE_ACTUALIZACION, datosRespuestaPaciente));
     }
 
     // DELETE Logico
     @DeleteMapping("/{id}")
-    @Transactional
-    public ResponseEntity<Map<String, String>> desactivaPaciente(@PathVariable Long id) {
-        Paciente paciente = pacienteRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND")); // Manejado en el global
-
-        Paciente pacienteActualizado = paciente.desactivarPaciente(); // Generar nueva instancia con activo = false
-        pacienteRepository.save(pacienteActualizado); // Guardar el cambio en la base de datos
+    public ResponseEntity<Map<String, String>> desactivaPaciente(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        pacienteService.desactivar(id, EtagVersion.versionEsperada(ifMatch));
 
         // Respuesta de éxito
         return ResponseEntity.noContent().build(); // Código 204 sin cuerpo
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<DatosRespuestaPaciente> retornaDatosPaciente(@PathVariable Long id) {
-        Paciente paciente = pacienteRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND")); // Manejado en el global
-
-        // Crear el DTO para la respuesta
-        DatosRespuestaPaciente datosRespuestaPaciente = new DatosRespuestaPaciente(paciente);
+    public ResponseEntity<DatosRespuestaPaciente> retornaDatosPaciente(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Si el cliente ya tiene la versión actual basta con consultar la columna version: 304 sin cuerpo
+        if (ifNoneMatch != null) {
+            Long version = pacienteService.version(id);
+            if (EtagVersion.coincide(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EtagVersion.de(version)).build();
+            }
+        }
 
-        // Respuesta de éxito
-        return ResponseEntity.ok(datosRespuestaPaciente);
+        DatosRespuestaPaciente datosRespuestaPaciente = pacienteService.detalle(id);
+        return ResponseEntity.ok().eTag(EtagVersion.de(datosRespuestaPaciente.version())).body(datosRespuestaPaciente);
     }
 }
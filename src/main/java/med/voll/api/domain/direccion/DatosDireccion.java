@@ -3,6 +3,8 @@ package med.voll.api.domain.direccion;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.List;
+
 public record DatosDireccion(
         @NotBlank(message = "El campo calle no puede estar vacía")
         String calle,
@@ -15,4 +17,7 @@ public record DatosDireccion(
         @NotBlank(message = "El campo complemento no puede estar vacío")
         String complemento
 ) {
+
+    // Nombres de los campos, para los formatos planos (CSV) de importación y exportación
+    public static final List<String> CAMPOS = List.of("calle", "distrito", "ciudad", "numero", "complemento");
 }
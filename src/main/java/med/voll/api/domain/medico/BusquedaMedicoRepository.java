@@ -0,0 +1,19 @@
+package med.voll.api.domain.medico;
+
+import med.voll.api.infra.paginacion.CursorListado;
+
+import java.util.List;
+
+/**
+ * Búsqueda con filtros combinables, implementada en {@link BusquedaMedicoRepositoryImpl} y expuesta
+ * en {@link MedicoRepository}.
+ */
+public interface BusquedaMedicoRepository {
+
+    /**
+     * @param filtros   filtros a aplicar; sin ninguno equivale al listado por cursor
+     * @param despuesDe última fila entregada, o null para el primer bloque
+     * @param limite    filas a devolver, en orden (nombre, id)
+     */
+    List<DatosListadoMedico> buscar(FiltrosBusquedaMedico filtros, CursorListado despuesDe, int limite);
+}
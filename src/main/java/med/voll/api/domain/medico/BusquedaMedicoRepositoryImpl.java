@@ -0,0 +1,92 @@
+package med.voll.api.domain.medico;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import med.voll.api.infra.paginacion.CursorListado;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.List;
+
+/**
+ * Cada combinación de filtros (y la presencia del cursor) tiene su propia consulta JPQL, armada una sola vez al
+ * cargar la clase: solo existen 16 textos posibles. Hibernate reutiliza el plan de cada uno y el driver su
+ * sentencia preparada, en lugar de recibir un texto nuevo en cada búsqueda.
+ * <p>
+ * Índices de apoyo (V8 y V11): {@code (activo, nombre, id)}, {@code (activo, especialidad, nombre, id)} y
+ * {@code (activo, ciudad, nombre, id)}. El prefijo del nombre es un rango sobre la columna de orden, así que
+ * cualquiera de ellos entrega las filas ya ordenadas y la consulta se detiene al llegar al límite.
+ */
+public class BusquedaMedicoRepositoryImpl implements BusquedaMedicoRepository {
+
+    private static final int ESPECIALIDAD = 1;
+    private static final int CIUDAD = 1 << 1;
+    private static final int NOMBRE = 1 << 2;
+    private static final int CURSOR = 1 << 3;
+
+    private static final char ESCAPE = '!';
+
+    private static final String[] CONSULTAS = new String[16];
+
+    static {
+        for (int mascara = 0; mascara < CONSULTAS.length; mascara++) {
+            StringBuilder jpql = new StringBuilder("select new med.voll.api.domain.medico.DatosListadoMedico(m.id, m.nombre, m.especialidad, m.documento, m.email) from Medico m where m.activo = true");
+            if ((mascara & ESPECIALIDAD) != 0) {
+                jpql.append(" and m.especialidad = :especialidad");
+            }
+            if ((mascara & CIUDAD) != 0) {
+                jpql.append(" and m.direccion.ciudad = :ciudad");
+            }
+            if ((mascara & NOMBRE) != 0) {
+                jpql.append(" and m.nombre like :prefijo escape '").append(ESCAPE).append('\'');
+            }
+            if ((mascara & CURSOR) != 0) {
+                jpql.append(" and (m.nombre > :nombre or (m.nombre = :nombre and m.id > :id))");
+            }
+            CONSULTAS[mascara] = jpql.append(" order by m.nombre, m.id").toString();
+        }
+    }
+
+    private final EntityManager entityManager;
+
+    public BusquedaMedicoRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<DatosListadoMedico> buscar(FiltrosBusquedaMedico filtros, CursorListado despuesDe, int limite) {
+        int mascara = (filtros.especialidad() != null ? ESPECIALIDAD : 0)
+                | (filtros.ciudad() != null ? CIUDAD : 0)
+                | (filtros.prefijoNombre() != null ? NOMBRE : 0)
+                | (despuesDe != null ? CURSOR : 0);
+
+        TypedQuery<DatosListadoMedico> consulta = entityManager.createQuery(CONSULTAS[mascara], DatosListadoMedico.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 100)
+                .setMaxResults(limite);
+        if (filtros.especialidad() != null) {
+            consulta.setParameter("especialidad", filtros.especialidad());
+        }
+        if (filtros.ciudad() != null) {
+            consulta.setParameter("ciudad", filtros.ciudad());
+        }
+        if (filtros.prefijoNombre() != null) {
+            consulta.setParameter("prefijo", escaparLike(filtros.prefijoNombre()) + '%');
+        }
+        if (despuesDe != null) {
+            consulta.setParameter("nombre", despuesDe.nombre());
+            consulta.setParameter("id", despuesDe.id());
+        }
+        return consulta.getResultList();
+    }
+
+    // Los comodines que escriba el cliente se buscan literalmente
+    static String escaparLike(String valor) {
+        StringBuilder escapado = new StringBuilder(valor.length() + 4);
+        for (char c : valor.toCharArray()) {
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escapado.append(ESCAPE);
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+}
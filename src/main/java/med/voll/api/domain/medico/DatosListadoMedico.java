@@ -10,4 +10,9 @@ public record DatosListadoMedico(
     public DatosListadoMedico(Medico medico){
         this(medico.getId(), medico.getNombre(), medico.getEspecialidad().toValue().toString(), medico.getDocumento(), medico.getEmail());
     }
+
+    // Usado por las proyecciones JPQL ("select new ...") de MedicoRepository
+    public DatosListadoMedico(Long id, String nombre, Especialidad especialidad, String documento, String email) {
+        this(id, nombre, especialidad.toValue(), documento, email);
+    }
 }
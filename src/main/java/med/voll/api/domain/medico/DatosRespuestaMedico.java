@@ -10,7 +10,8 @@ public record DatosRespuestaMedico(
         String email,
         String telefono,
         String especialidad,
-        DatosDireccion direccion
+        DatosDireccion direccion,
+        Long version
 ) {
         public DatosRespuestaMedico(Medico medico) {
                 this(
@@ -25,7 +26,8 @@ public record DatosRespuestaMedico(
                                 medico.getDireccion().getCiudad(),
                                 medico.getDireccion().getNumero(),
                                 medico.getDireccion().getComplemento()
-                        )
+                        ),
+                        medico.getVersion()
                 );
         }
 }
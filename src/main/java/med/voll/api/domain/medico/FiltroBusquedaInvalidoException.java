@@ -0,0 +1,8 @@
+package med.voll.api.domain.medico;
+
+public class FiltroBusquedaInvalidoException extends RuntimeException {
+
+    public FiltroBusquedaInvalidoException() {
+        super("ERR_INVALID_REQUEST");
+    }
+}
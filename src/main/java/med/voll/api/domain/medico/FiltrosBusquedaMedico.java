@@ -0,0 +1,21 @@
+package med.voll.api.domain.medico;
+
+/**
+ * Filtros combinables de la búsqueda de médicos activos; los que son null no se aplican.
+ *
+ * @param especialidad  especialidad exacta
+ * @param ciudad        ciudad exacta de la dirección
+ * @param prefijoNombre comienzo del nombre; con la collation de MySQL la comparación no distingue mayúsculas
+ */
+public record FiltrosBusquedaMedico(
+        Especialidad especialidad,
+        String ciudad,
+        String prefijoNombre
+) {
+
+    // Un texto vacío equivale a no filtrar por ese campo
+    public FiltrosBusquedaMedico {
+        ciudad = ciudad == null || ciudad.isBlank() ? null : ciudad.trim();
+        prefijoNombre = prefijoNombre == null || prefijoNombre.isBlank() ? null : prefijoNombre.trim();
+    }
+}
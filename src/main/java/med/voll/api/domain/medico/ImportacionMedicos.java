@@ -0,0 +1,54 @@
+package med.voll.api.domain.medico;
+
+import med.voll.api.infra.importacion.TablaImportacion;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+@Component
+public class ImportacionMedicos implements TablaImportacion<DatosRegistroMedico> {
+
+    private static final String INSERTAR = "INSERT INTO medicos (nombre, telefono, email, documento, especialidad, "
+            + "calle, distrito, ciudad, numero, complemento, activo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE)";
+
+    @Override
+    public Class<DatosRegistroMedico> tipo() {
+        return DatosRegistroMedico.class;
+    }
+
+    @Override
+    public String tabla() {
+        return "medicos";
+    }
+
+    @Override
+    public Map<String, String> columnasUnicas() {
+        return Map.of("email", "email", "documento", "documento");
+    }
+
+    @Override
+    public Map<String, String> valoresUnicos(DatosRegistroMedico registro) {
+        return Map.of("email", registro.email(), "documento", registro.documento());
+    }
+
+    @Override
+    public String sqlInsercion() {
+        return INSERTAR;
+    }
+
+    @Override
+    public void asignarParametros(PreparedStatement ps, DatosRegistroMedico registro) throws SQLException {
+        ps.setString(1, registro.nombre());
+        ps.setString(2, registro.telefono());
+        ps.setString(3, registro.email());
+        ps.setString(4, registro.documento());
+        ps.setString(5, registro.especialidad().toValue()); // Mismo valor que guarda EspecialidadConverter
+        ps.setString(6, registro.direccion().calle());
+        ps.setString(7, registro.direccion().distrito());
+        ps.setString(8, registro.direccion().ciudad());
+        ps.setString(9, registro.direccion().numero());
+        ps.setString(10, registro.direccion().complemento());
+    }
+}
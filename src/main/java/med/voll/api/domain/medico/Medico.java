@@ -7,9 +7,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import med.voll.api.domain.direccion.DatosDireccion;
 import med.voll.api.domain.direccion.Direccion;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Table(name = "medicos")
 @Entity(name = "Medico")
+@DynamicUpdate // El UPDATE solo incluye las columnas que cambiaron
 @Getter
 @NoArgsConstructor(force = true)
 @AllArgsConstructor
@@ -41,6 +43,10 @@ public class Medico {
 
     private final boolean activo;
 
+    // Se incrementa en cada UPDATE; el UPDATE falla si otra transacción la cambió antes (bloqueo optimista)
+    @Version
+    private final Long version;
+
     // Constructor adicional para DatosRegistroMedico
     public Medico(DatosRegistroMedico datosRegistroMedico) {
         this(
@@ -51,7 +57,8 @@ public class Medico {
                 datosRegistroMedico.documento(),
                 Especialidad.fromValue(datosRegistroMedico.especialidad().toValue()),
                 new Direccion(datosRegistroMedico.direccion()),
-                true
+                true,
+                null // Versión inicial la asigna Hibernate
         );
     }
 
@@ -64,7 +71,8 @@ public class Medico {
                 documento != null ? documento : this.documento, // Mantén el valor actual si es null
                 this.especialidad, // Especialidad no se actualiza en este método
                 direccion != null ? this.direccion.actualizarDatos(direccion) : this.direccion, // Actualiza la dirección si no es null
-                this.activo
+                this.activo,
+                this.version
         );
     }
 
@@ -78,7 +86,8 @@ public class Medico {
                 this.documento,
                 this.especialidad,
                 this.direccion,
-                false // Cambiar activo a false
+                false, // Cambiar activo a false
+                this.version
         );
     }
 
@@ -1,11 +1,49 @@
 package med.voll.api.domain.medico;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface MedicoRepository extends JpaRepository<Medico, Long> {
-    boolean existsByEmailAndDocumento(String email, String documento);
+import java.util.List;
+import java.util.Optional;
 
-    Page<Medico> findByActivoTrue(Pageable pageable);
-}
\ No newline at end of file
+public interface MedicoRepository extends JpaRepository<Medico, Long>, BusquedaMedicoRepository {
+    // Los listados se proyectan directamente al DTO: solo se leen las columnas listadas y no se gestionan entidades.
+    // El fetch size se alinea con el tamaño máximo de página para traer cada bloque en un solo viaje
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(value = "select new med.voll.api.domain.medico.DatosListadoMedico(m.id, m.nombre, m.especialidad, m.documento, m.email) from Medico m where m.activo = true",
+            countQuery = "select count(m) from Medico m where m.activo = true")
+    Page<DatosListadoMedico> findByActivoTrue(Pageable pageable);
+
+    // Igual que el anterior pero sin la consulta COUNT: pide una fila de más para saber si hay otra página
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new med.voll.api.domain.medico.DatosListadoMedico(m.id, m.nombre, m.especialidad, m.documento, m.email) from Medico m where m.activo = true")
+    Slice<DatosListadoMedico> findSliceByActivoTrue(Pageable pageable);
+
+    long countByActivoTrue();
+
+    // Listado por cursor (keyset): primer bloque
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new med.voll.api.domain.medico.DatosListadoMedico(m.id, m.nombre, m.especialidad, m.documento, m.email) from Medico m where m.activo = true order by m.nombre, m.id")
+    List<DatosListadoMedico> findActivos(Limit limite);
+
+    // Listado por cursor (keyset): bloques siguientes, a partir de la última fila entregada
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new med.voll.api.domain.medico.DatosListadoMedico(m.id, m.nombre, m.especialidad, m.documento, m.email) from Medico m where m.activo = true and (m.nombre > :nombre or (m.nombre = :nombre and m.id > :id)) order by m.nombre, m.id")
+    List<DatosListadoMedico> findActivosDespuesDe(String nombre, Long id, Limit limite);
+
+    // Detalle para respuestas de solo lectura: la entidad se carga sin copia para dirty checking
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Medico> findDetalleById(Long id);
+
+    // Solo la versión, para responder 304 a If-None-Match sin cargar el registro
+    @Query("select m.version from Medico m where m.id = :id")
+    Optional<Long> findVersionById(Long id);
+}
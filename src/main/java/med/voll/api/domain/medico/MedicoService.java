@@ -0,0 +1,188 @@
+package med.voll.api.domain.medico;
+
+import jakarta.persistence.EntityNotFoundException;
+import med.voll.api.infra.exportacion.ExportadorFilas;
+import med.voll.api.infra.exportacion.FormatoExportacion;
+import med.voll.api.infra.importacion.FormatoImportacion;
+import med.voll.api.infra.importacion.ImportadorRegistros;
+import med.voll.api.infra.paginacion.ContadorListados;
+import med.voll.api.infra.paginacion.CursorListado;
+import med.voll.api.infra.paginacion.DatosPaginaCursor;
+import med.voll.api.infra.paginacion.DatosPaginaSlice;
+import med.voll.api.infra.versionado.EtagVersion;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Casos de uso de médicos. Las lecturas corren en transacciones de solo lectura: Hibernate no guarda
+ * copias para dirty checking ni hace flush, y si hay una réplica configurada se ejecutan contra ella.
+ * <p>
+ * El detalle por id y las páginas del directorio se guardan en cache: el directorio se consulta mucho más de lo
+ * que se modifica. Cada alta, cambio o baja vacía las páginas y reemplaza o invalida el detalle afectado.
+ * Los métodos que llenan esas caches no son de solo lectura para que lean del primario: leídos de una réplica
+ * retrasada, justo después de una invalidación volverían a guardar la fila anterior durante todo el TTL.
+ * La cache ya absorbe esas lecturas, así que llevarlas al primario apenas le suma carga.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MedicoService {
+
+    // Columnas y nombres de campo de la exportación, en el mismo orden
+    private static final String SQL_EXPORTACION = "SELECT id, nombre, telefono, email, documento, especialidad, calle, distrito, ciudad, numero, complemento, activo FROM medicos WHERE activo = :activo";
+    private static final List<String> CAMPOS_EXPORTACION = List.of("id", "nombre", "telefono", "email", "documento", "especialidad", "calle", "distrito", "ciudad", "numero", "complemento", "activo");
+
+    private final MedicoRepository medicoRepository;
+    private final ObjectProvider<ContadorListados> contadorListados;
+    private final ImportadorRegistros importadorRegistros;
+    private final ImportacionMedicos importacionMedicos;
+    private final ExportadorFilas exportadorFilas;
+
+    public MedicoService(MedicoRepository medicoRepository, ObjectProvider<ContadorListados> contadorListados,
+                         ImportadorRegistros importadorRegistros, ImportacionMedicos importacionMedicos,
+                         ExportadorFilas exportadorFilas) {
+        this.medicoRepository = medicoRepository;
+        this.contadorListados = contadorListados;
+        this.importadorRegistros = importadorRegistros;
+        this.importacionMedicos = importacionMedicos;
+        this.exportadorFilas = exportadorFilas;
+    }
+
+    @Transactional
+    @Cacheable(cacheNames = "listadoMedicos", key = "{'pagina', #p0}")
+    public Page<DatosListadoMedico> listar(Pageable pageable) {
+        return medicoRepository.findByActivoTrue(pageable);
+    }
+
+    @Transactional
+    @Cacheable(cacheNames = "listadoMedicos", key = "{'slice', #p0}")
+    public DatosPaginaSlice<DatosListadoMedico> listarSlice(Pageable pageable) {
+        ContadorListados contador = contadorListados.getIfAvailable();
+        return DatosPaginaSlice.de(
+                medicoRepository.findSliceByActivoTrue(pageable),
+                contador != null ? contador.medicosActivos() : null
+        );
+    }
+
+    @Transactional
+    @Cacheable(cacheNames = "listadoMedicos", key = "{'cursor', #p0, #p1, #p2}")
+    public DatosPaginaCursor<DatosListadoMedico> listarPorCursor(CursorListado posicion, int tamano, boolean total) {
+        int tamanoBloque = DatosPaginaCursor.tamanoValido(tamano);
+        Limit limite = Limit.of(tamanoBloque + 1); // Una fila extra indica si hay un bloque siguiente
+
+        List<DatosListadoMedico> medicos = posicion == null
+                ? medicoRepository.findActivos(limite)
+                : medicoRepository.findActivosDespuesDe(posicion.nombre(), posicion.id(), limite);
+
+        return DatosPaginaCursor.de(
+                medicos,
+                tamanoBloque,
+                medico -> new CursorListado(medico.nombre(), medico.id()),
+                total ? medicoRepository.countByActivoTrue() : null
+        );
+    }
+
+    // Búsqueda con filtros: mismo bloque por cursor que el listado, restringido por especialidad, ciudad y prefijo del nombre.
+    // Las combinaciones de texto libre son casi ilimitadas: van a su propia cache para no desalojar las páginas del listado
+    @Transactional
+    @Cacheable(cacheNames = "busquedaMedicos", key = "{#p0, #p1, #p2}")
+    public DatosPaginaCursor<DatosListadoMedico> buscar(FiltrosBusquedaMedico filtros, CursorListado posicion, int tamano) {
+        int tamanoBloque = DatosPaginaCursor.tamanoValido(tamano);
+
+        return DatosPaginaCursor.de(
+                medicoRepository.buscar(filtros, posicion, tamanoBloque + 1), // Una fila extra indica si hay un bloque siguiente
+                tamanoBloque,
+                medico -> new CursorListado(medico.nombre(), medico.id()),
+                null
+        );
+    }
+
+    @Transactional
+    @Cacheable(cacheNames = "medicos", key = "#p0")
+    public DatosRespuestaMedico detalle(Long id) {
+        return medicoRepository.findDetalleById(id)
+                .map(DatosRespuestaMedico::new)
+                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND")); // Manejado en el global
+    }
+
+    // Sin consulta previa: un email o documento repetido lo rechaza la restricción UNIQUE (409 con el campo en el global)
+    @Transactional
+    @CacheEvict(cacheNames = {"listadoMedicos", "busquedaMedicos"}, allEntries = true)
+    public DatosRespuestaMedico registrar(DatosRegistroMedico datosRegistroMedico) {
+        return new DatosRespuestaMedico(medicoRepository.save(new Medico(datosRegistroMedico)));
+    }
+
+    // Versión actual del registro, para comparar con el ETag que envía el cliente
+    public Long version(Long id) {
+        return medicoRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND"));
+    }
+
+    /**
+     * @param versionEsperada versión indicada en If-Match, o null para actualizar sin condición
+     */
+    @Transactional
+    @Caching(put = @CachePut(cacheNames = "medicos", key = "#result.id()"),
+            evict = @CacheEvict(cacheNames = {"listadoMedicos", "busquedaMedicos"}, allEntries = true))
+    public DatosRespuestaMedico actualizar(DatosActualizaMedico datosActualizaMedico, Long versionEsperada) {
+        Medico medico = medicoRepository.findById(datosActualizaMedico.id())
+                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND"));
+        EtagVersion.verificar(versionEsperada, medico.getVersion());
+
+        Medico medicoActualizado = medico.actualizarDatos(
+                datosActualizaMedico.nombre(),
+                datosActualizaMedico.documento(),
+                datosActualizaMedico.direccion()
+        );
+        // El flush emite ya el UPDATE (solo columnas cambiadas, con WHERE version = ?) para devolver la versión nueva
+        return new DatosRespuestaMedico(medicoRepository.saveAndFlush(medicoActualizado));
+    }
+
+    // DELETE lógico
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "medicos", key = "#p0"),
+            @CacheEvict(cacheNames = {"listadoMedicos", "busquedaMedicos"}, allEntries = true)
+    })
+    public void desactivar(Long id, Long versionEsperada) {
+        Medico medico = medicoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND"));
+        EtagVersion.verificar(versionEsperada, medico.getVersion());
+
+        medicoRepository.save(medico.desactivarMedico()); // Generar nueva instancia con activo = false
+    }
+
+    // Sin transacción envolvente: cada lote confirma la suya, y así no se enruta a la réplica
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = {"listadoMedicos", "busquedaMedicos"}, allEntries = true)
+    public void importar(InputStream entrada, FormatoImportacion formato, OutputStream reporte) throws IOException {
+        importadorRegistros.importar(entrada, formato, importacionMedicos, reporte);
+    }
+
+    // Toda la descarga corre en una transacción de solo lectura: lectura consistente y, si hay réplica, servida por ella
+    public void exportar(boolean activo, Especialidad especialidad, FormatoExportacion formato, OutputStream salida) throws IOException {
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("activo", activo);
+        String sql = SQL_EXPORTACION;
+        if (especialidad != null) {
+            sql += " AND especialidad = :especialidad";
+            parametros.put("especialidad", especialidad.toValue());
+        }
+        exportadorFilas.exportar(sql + " ORDER BY id", parametros, CAMPOS_EXPORTACION, formato, salida);
+    }
+}
@@ -10,7 +10,8 @@ public record DatosRespuestaPaciente(
         String email,
         String documentoIdentidad,
         String telefono,
-        DatosDireccion direccion
+        DatosDireccion direccion,
+        Long version
 ) {
         public DatosRespuestaPaciente(Paciente paciente) {
                 this(
@@ -25,7 +26,8 @@ public record DatosRespuestaPaciente(
                                 paciente.getDireccion().getCiudad(),
                                 paciente.getDireccion().getNumero(),
                                 paciente.getDireccion().getComplemento()
-                        )
+                        ),
+                        paciente.getVersion()
                 );
         }
 }
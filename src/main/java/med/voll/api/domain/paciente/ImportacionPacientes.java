@@ -0,0 +1,53 @@
+package med.voll.api.domain.paciente;
+
+import med.voll.api.infra.importacion.TablaImportacion;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+@Component
+public class ImportacionPacientes implements TablaImportacion<DatosRegistroPaciente> {
+
+    private static final String INSERTAR = "INSERT INTO pacientes (nombre, email, documento_identidad, telefono, "
+            + "calle, distrito, ciudad, numero, complemento, activo) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE)";
+
+    @Override
+    public Class<DatosRegistroPaciente> tipo() {
+        return DatosRegistroPaciente.class;
+    }
+
+    @Override
+    public String tabla() {
+        return "pacientes";
+    }
+
+    @Override
+    public Map<String, String> columnasUnicas() {
+        return Map.of("email", "email", "documentoIdentidad", "documento_identidad");
+    }
+
+    @Override
+    public Map<String, String> valoresUnicos(DatosRegistroPaciente registro) {
+        return Map.of("email", registro.email(), "documentoIdentidad", registro.documentoIdentidad());
+    }
+
+    @Override
+    public String sqlInsercion() {
+        return INSERTAR;
+    }
+
+    @Override
+    public void asignarParametros(PreparedStatement ps, DatosRegistroPaciente registro) throws SQLException {
+        ps.setString(1, registro.nombre());
+        ps.setString(2, registro.email());
+        ps.setString(3, registro.documentoIdentidad());
+        ps.setString(4, registro.telefono());
+        ps.setString(5, registro.direccion().calle());
+        ps.setString(6, registro.direccion().distrito());
+        ps.setString(7, registro.direccion().ciudad());
+        ps.setString(8, registro.direccion().numero());
+        ps.setString(9, registro.direccion().complemento());
+    }
+}
@@ -7,10 +7,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import med.voll.api.domain.direccion.DatosDireccion;
 import med.voll.api.domain.direccion.Direccion;
+import org.hibernate.annotations.DynamicUpdate;
 
 
 @Table(name = "pacientes")
 @Entity(name = "Paciente")
+@DynamicUpdate // El UPDATE solo incluye las columnas que cambiaron
 @Getter
 @NoArgsConstructor(force = true)
 @AllArgsConstructor
@@ -38,6 +40,10 @@ public class Paciente {
 
     private final Boolean activo;
 
+    // Se incrementa en cada UPDATE; el UPDATE falla si otra transacción la cambió antes (bloqueo optimista)
+    @Version
+    private final Long version;
+
     public Paciente(DatosRegistroPaciente datosRegistroPaciente) {
         this(null,
         datosRegistroPaciente.nombre(),
@@ -45,7 +51,8 @@ public class Paciente {
         datosRegistroPaciente.documentoIdentidad(),
         datosRegistroPaciente.telefono(),
         new Direccion(datosRegistroPaciente.direccion()),
-        true
+        true,
+        null // Versión inicial la asigna Hibernate
         );
     }
 
@@ -57,7 +64,8 @@ public class Paciente {
                 documentoIdentidad != null ? documentoIdentidad : this.documentoIdentidad, // Mantén el valor actual si es null
                 this.telefono, // Teléfono no se actualiza en este método
                 direccion != null ? this.direccion.actualizarDatos(direccion) : this.direccion, // Actualiza la dirección si no es null
-                this.activo
+                this.activo,
+                this.version
         );
     }
 
@@ -70,7 +78,8 @@ public class Paciente {
                 this.documentoIdentidad,
                 this.telefono,
                 this.direccion,
-                false // Cambiar activo a false
+                false, // Cambiar activo a false
+                this.version
         );
     }
 }
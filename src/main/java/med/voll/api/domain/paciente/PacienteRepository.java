@@ -1,12 +1,49 @@
 package med.voll.api.domain.paciente;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface PacienteRepository extends JpaRepository<Paciente, Long> {
-    boolean existsByEmailAndDocumentoIdentidad(String email, String documentoIdentidad);
+    // Los listados se proyectan directamente al DTO: solo se leen las columnas listadas y no se gestionan entidades.
+    // El fetch size se alinea con el tamaño máximo de página para traer cada bloque en un solo viaje
 
-    Page<Paciente> findByActivoTrue(Pageable pageable);
-}
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(value = "select new med.voll.api.domain.paciente.DatosListadoPaciente(p.id, p.nombre, p.email, p.documentoIdentidad, p.telefono) from Paciente p where p.activo = true",
+            countQuery = "select count(p) from Paciente p where p.activo = true")
+    Page<DatosListadoPaciente> findByActivoTrue(Pageable pageable);
+
+    // Igual que el anterior pero sin la consulta COUNT: pide una fila de más para saber si hay otra página
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new med.voll.api.domain.paciente.DatosListadoPaciente(p.id, p.nombre, p.email, p.documentoIdentidad, p.telefono) from Paciente p where p.activo = true")
+    Slice<DatosListadoPaciente> findSliceByActivoTrue(Pageable pageable);
+
+    long countByActivoTrue();
 
+    // Listado por cursor (keyset): primer bloque
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new med.voll.api.domain.paciente.DatosListadoPaciente(p.id, p.nombre, p.email, p.documentoIdentidad, p.telefono) from Paciente p where p.activo = true order by p.nombre, p.id")
+    List<DatosListadoPaciente> findActivos(Limit limite);
+
+    // Listado por cursor (keyset): bloques siguientes, a partir de la última fila entregada
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new med.voll.api.domain.paciente.DatosListadoPaciente(p.id, p.nombre, p.email, p.documentoIdentidad, p.telefono) from Paciente p where p.activo = true and (p.nombre > :nombre or (p.nombre = :nombre and p.id > :id)) order by p.nombre, p.id")
+    List<DatosListadoPaciente> findActivosDespuesDe(String nombre, Long id, Limit limite);
+
+    // Detalle para respuestas de solo lectura: la entidad se carga sin copia para dirty checking
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Paciente> findDetalleById(Long id);
+
+    // Solo la versión, para responder 304 a If-None-Match sin cargar el registro
+    @Query("select p.version from Paciente p where p.id = :id")
+    Optional<Long> findVersionById(Long id);
+}
@@ -0,0 +1,139 @@
+package med.voll.api.domain.paciente;
+
+import jakarta.persistence.EntityNotFoundException;
+import med.voll.api.infra.exportacion.ExportadorFilas;
+import med.voll.api.infra.exportacion.FormatoExportacion;
+import med.voll.api.infra.importacion.FormatoImportacion;
+import med.voll.api.infra.importacion.ImportadorRegistros;
+import med.voll.api.infra.paginacion.ContadorListados;
+import med.voll.api.infra.paginacion.CursorListado;
+import med.voll.api.infra.paginacion.DatosPaginaCursor;
+import med.voll.api.infra.paginacion.DatosPaginaSlice;
+import med.voll.api.infra.versionado.EtagVersion;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Casos de uso de pacientes. Las lecturas corren en transacciones de solo lectura: Hibernate no guarda
+ * copias para dirty checking ni hace flush, y si hay una réplica configurada se ejecutan contra ella.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PacienteService {
+
+    // Columnas y nombres de campo de la exportación, en el mismo orden
+    private static final String SQL_EXPORTACION = "SELECT id, nombre, email, documento_identidad, telefono, calle, distrito, ciudad, numero, complemento, activo FROM pacientes WHERE activo = :activo";
+    private static final List<String> CAMPOS_EXPORTACION = List.of("id", "nombre", "email", "documentoIdentidad", "telefono", "calle", "distrito", "ciudad", "numero", "complemento", "activo");
+
+    private final PacienteRepository pacienteRepository;
+    private final ObjectProvider<ContadorListados> contadorListados;
+    private final ImportadorRegistros importadorRegistros;
+    private final ImportacionPacientes importacionPacientes;
+    private final ExportadorFilas exportadorFilas;
+
+    public PacienteService(PacienteRepository pacienteRepository, ObjectProvider<ContadorListados> contadorListados,
+                           ImportadorRegistros importadorRegistros, ImportacionPacientes importacionPacientes,
+                           ExportadorFilas exportadorFilas) {
+        this.pacienteRepository = pacienteRepository;
+        this.contadorListados = contadorListados;
+        this.importadorRegistros = importadorRegistros;
+        this.importacionPacientes = importacionPacientes;
+        this.exportadorFilas = exportadorFilas;
+    }
+
+    public Page<DatosListadoPaciente> listar(Pageable pageable) {
+        return pacienteRepository.findByActivoTrue(pageable);
+    }
+
+    public DatosPaginaSlice<DatosListadoPaciente> listarSlice(Pageable pageable) {
+        ContadorListados contador = contadorListados.getIfAvailable();
+        return DatosPaginaSlice.de(
+                pacienteRepository.findSliceByActivoTrue(pageable),
+                contador != null ? contador.pacientesActivos() : null
+        );
+    }
+
+    public DatosPaginaCursor<DatosListadoPaciente> listarPorCursor(CursorListado posicion, int tamano, boolean total) {
+        int tamanoBloque = DatosPaginaCursor.tamanoValido(tamano);
+        Limit limite = Limit.of(tamanoBloque + 1); // Una fila extra indica si hay un bloque siguiente
+
+        List<DatosListadoPaciente> pacientes = posicion == null
+                ? pacienteRepository.findActivos(limite)
+                : pacienteRepository.findActivosDespuesDe(posicion.nombre(), posicion.id(), limite);
+
+        return DatosPaginaCursor.de(
+                pacientes,
+                tamanoBloque,
+                paciente -> new CursorListado(paciente.nombre(), paciente.id()),
+                total ? pacienteRepository.countByActivoTrue() : null
+        );
+    }
+
+    public DatosRespuestaPaciente detalle(Long id) {
+        return pacienteRepository.findDetalleById(id)
+                .map(DatosRespuestaPaciente::new)
+                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND")); // Manejado en el global
+    }
+
+    // Sin consulta previa: un email o documento repetido lo rechaza la restricción UNIQUE (409 con el campo en el global)
+    @Transactional
+    public DatosRespuestaPaciente registrar(DatosRegistroPaciente datosRegistroPaciente) {
+        return new DatosRespuestaPaciente(pacienteRepository.save(new Paciente(datosRegistroPaciente)));
+    }
+
+    // Versión actual del registro, para comparar con el ETag que envía el cliente
+    public Long version(Long id) {
+        return pacienteRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND"));
+    }
+
+    /**
+     * @param versionEsperada versión indicada en If-Match, o null para actualizar sin condición
+     */
+    @Transactional
+    public DatosRespuestaPaciente actualizar(DatosActualizaPaciente datosActualizaPaciente, Long versionEsperada) {
+        Paciente paciente = pacienteRepository.findById(datosActualizaPaciente.id())
+                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND"));
+        EtagVersion.verificar(versionEsperada, paciente.getVersion());
+
+        Paciente pacienteActualizado = paciente.actualizarDatos(
+                datosActualizaPaciente.nombre(),
+                datosActualizaPaciente.documentoIdentidad(),
+                datosActualizaPaciente.direccion()
+        );
+        // El flush emite ya el UPDATE (solo columnas cambiadas, con WHERE version = ?) para devolver la versión nueva
+        return new DatosRespuestaPaciente(pacienteRepository.saveAndFlush(pacienteActualizado));
+    }
+
+    // DELETE lógico
+    @Transactional
+    public void desactivar(Long id, Long versionEsperada) {
+        Paciente paciente = pacienteRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("ERR_RECORD_NOT_FOUND"));
+        EtagVersion.verificar(versionEsperada, paciente.getVersion());
+
+        pacienteRepository.save(paciente.desactivarPaciente()); // Generar nueva instancia con activo = false
+    }
+
+    // Sin transacción envolvente: cada lote confirma la suya, y así no se enruta a la réplica
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void importar(InputStream entrada, FormatoImportacion formato, OutputStream reporte) throws IOException {
+        importadorRegistros.importar(entrada, formato, importacionPacientes, reporte);
+    }
+
+    // Toda la descarga corre en una transacción de solo lectura: lectura consistente y, si hay réplica, servida por ella
+    public void exportar(boolean activo, FormatoExportacion formato, OutputStream salida) throws IOException {
+        exportadorFilas.exportar(SQL_EXPORTACION + " ORDER BY id", Map.of("activo", activo), CAMPOS_EXPORTACION, formato, salida);
+    }
+}
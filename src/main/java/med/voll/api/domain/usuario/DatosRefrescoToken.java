@@ -0,0 +1,9 @@
+package med.voll.api.domain.usuario;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record DatosRefrescoToken(
+        @NotBlank(message = "El campo refreshToken no puede estar vacío")
+        String refreshToken
+) {
+}
@@ -0,0 +1,9 @@
+package med.voll.api.domain.usuario;
+
+import java.time.Instant;
+
+public record DatosRevocacionUsuario(
+        String login,
+        Instant tokensValidosDesde
+) {
+}
@@ -0,0 +1,52 @@
+package med.voll.api.domain.usuario;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Table(name = "refresh_tokens")
+@Entity(name = "RefreshToken")
+@Getter
+@NoArgsConstructor(force = true)
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private final Usuario usuario;
+
+    // Solo se guarda el SHA-256 del token; el valor en claro lo conoce únicamente el cliente
+    @Column(unique = true, nullable = false)
+    private final String tokenHash;
+
+    // Todos los tokens obtenidos por rotación desde un mismo login comparten familia
+    @Column(nullable = false)
+    private final String familia;
+
+    @Column(nullable = false)
+    private final Instant creadoEn;
+
+    @Column(nullable = false)
+    private final Instant expiraEn;
+
+    private final boolean usado;
+
+    private final boolean revocado;
+
+    public RefreshToken(Usuario usuario, String tokenHash, String familia, Instant creadoEn, Instant expiraEn) {
+        this(null, usuario, tokenHash, familia, creadoEn, expiraEn, false, false);
+    }
+
+    public boolean estaExpirado(Instant ahora) {
+        return expiraEn.isBefore(ahora);
+    }
+}
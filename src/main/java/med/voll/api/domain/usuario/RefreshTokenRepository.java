@@ -0,0 +1,28 @@
+package med.voll.api.domain.usuario;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Una sola consulta por índice único, trayendo el usuario para emitir el nuevo JWT
+    @Query("select r from RefreshToken r join fetch r.usuario where r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Devuelve 0 si otro request ya consumió el token (uso concurrente)
+    @Modifying
+    @Query("update RefreshToken r set r.usado = true where r.id = :id and r.usado = false and r.revocado = false")
+    int marcarUsado(Long id);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revocado = true where r.familia = :familia")
+    int revocarFamilia(String familia);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiraEn < :ahora")
+    int eliminarExpirados(Instant ahora);
+}
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 
@@ -33,10 +34,25 @@ public class Usuario implements UserDetails {
     @Column(nullable = false)
     private final RoleEnum rol; // Campo de rol como un enum
 
+    // Los tokens emitidos antes de este instante se consideran revocados (null = ninguno)
+    private final Instant tokensValidosDesde;
+
     public Usuario(String login, String clave, RoleEnum rol) {
         this.login = login;
         this.clave = clave;
         this.rol = rol;
+        this.tokensValidosDesde = null;
+    }
+
+    // Método para reemplazar el hash de la clave (p. ej. al subir la fuerza de BCrypt)
+    public Usuario actualizarClave(String nuevaClave) {
+        return new Usuario(
+                this.id,
+                this.login,
+                nuevaClave,
+                this.rol,
+                this.tokensValidosDesde
+        );
     }
 
     @Override
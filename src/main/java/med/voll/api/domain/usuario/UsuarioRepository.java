@@ -1,8 +1,42 @@
 package med.voll.api.domain.usuario;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
+import java.util.List;
+
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+
+    // Cacheado por login; no se cachean los logins inexistentes para no retrasar altas nuevas
+    @Cacheable(cacheNames = "usuarios", key = "#p0", unless = "#result == null")
     UserDetails findByLogin(String username);
+
+    @Override
+    @CacheEvict(cacheNames = "usuarios", key = "#p0.login")
+    <S extends Usuario> S save(S usuario);
+
+    @Override
+    @CacheEvict(cacheNames = "usuarios", allEntries = true)
+    <S extends Usuario> List<S> saveAll(Iterable<S> usuarios);
+
+    @Override
+    @CacheEvict(cacheNames = "usuarios", key = "#p0.login")
+    void delete(Usuario usuario);
+
+    @Override
+    @CacheEvict(cacheNames = "usuarios", allEntries = true)
+    void deleteById(Long id);
+
+    @Query("select new med.voll.api.domain.usuario.DatosRevocacionUsuario(u.login, u.tokensValidosDesde) from Usuario u where u.tokensValidosDesde is not null")
+    List<DatosRevocacionUsuario> findRevocaciones();
+
+    @Modifying
+    @CacheEvict(cacheNames = "usuarios", key = "#p0")
+    @Query("update Usuario u set u.tokensValidosDesde = :desde where u.login = :login")
+    int revocarTokens(String login, Instant desde);
 }
@@ -0,0 +1,44 @@
+package med.voll.api.infra.admision;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Grupo de endpoints con su propio límite de concurrencia: una consulta lenta de un grupo
+ * no deja sin hilos ni conexiones a los demás.
+ * <p>
+ * Las importaciones y exportaciones masivas ({@link #TRANSFERENCIA}) ocupan su lugar durante minutos: tienen el
+ * suyo propio para no agotar el de las lecturas o escrituras, y su duración no ajusta el límite.
+ */
+public enum ClaseSolicitud {
+    AUTENTICACION,
+    LECTURA,
+    ESCRITURA,
+    TRANSFERENCIA;
+
+    public static ClaseSolicitud de(HttpServletRequest request) {
+        String ruta = ruta(request);
+        if (ruta.startsWith("/login")) {
+            return AUTENTICACION;
+        }
+        if (ruta.endsWith("/exportacion") || ruta.endsWith("/importacion")) {
+            return TRANSFERENCIA;
+        }
+        return switch (request.getMethod()) {
+            case "GET", "HEAD", "OPTIONS" -> LECTURA;
+            default -> ESCRITURA;
+        };
+    }
+
+    // La duración de una exportación o importación depende del volumen, no de la carga: no sirve para ajustar el límite
+    boolean duracionRepresentativa() {
+        return this != TRANSFERENCIA;
+    }
+
+    static String ruta(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    public String etiqueta() {
+        return name().toLowerCase();
+    }
+}
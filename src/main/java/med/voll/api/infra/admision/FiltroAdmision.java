@@ -0,0 +1,112 @@
+package med.voll.api.infra.admision;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import med.voll.api.infra.errors.CodigoError;
+import med.voll.api.infra.errors.ContadorErrores;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Control de admisión: cada {@link ClaseSolicitud} tiene su propio {@link LimiteAdaptativo}. Lo que excede el
+ * límite y la cola se rechaza con 503 y Retry-After antes de autenticar el token o tomar una conexión.
+ * <p>
+ * Las solicitudes asíncronas (login, importación, exportación) conservan su lugar hasta que termina el
+ * procesamiento asíncrono, no cuando se libera el hilo de Tomcat.
+ * <p>
+ * Métricas por clase: {@code admision.limite}, {@code admision.en.ejecucion}, {@code admision.en.cola} y
+ * {@code admision.rechazos}.
+ */
+public class FiltroAdmision extends OncePerRequestFilter {
+
+    private static final String ATRIBUTO_PERMISO = FiltroAdmision.class.getName() + ".permiso";
+
+    private final Map<ClaseSolicitud, LimiteAdaptativo> limites;
+    private final Map<ClaseSolicitud, Counter> rechazos = new EnumMap<>(ClaseSolicitud.class);
+    private final ContadorErrores contadorErrores;
+
+    public FiltroAdmision(Map<ClaseSolicitud, LimiteAdaptativo> limites, ContadorErrores contadorErrores, MeterRegistry meterRegistry) {
+        this.limites = new EnumMap<>(limites);
+        this.contadorErrores = contadorErrores;
+        this.limites.forEach((clase, limite) -> {
+            Gauge.builder("admision.limite", limite, LimiteAdaptativo::limite).tag("clase", clase.etiqueta()).register(meterRegistry);
+            Gauge.builder("admision.en.ejecucion", limite, LimiteAdaptativo::enEjecucion).tag("clase", clase.etiqueta()).register(meterRegistry);
+            Gauge.builder("admision.en.cola", limite, LimiteAdaptativo::enCola).tag("clase", clase.etiqueta()).register(meterRegistry);
+            rechazos.put(clase, Counter.builder("admision.rechazos").tag("clase", clase.etiqueta()).register(meterRegistry));
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // En el dispatch asíncrono el permiso ya se obtuvo en la solicitud original
+        LimiteAdaptativo.Permiso permiso = (LimiteAdaptativo.Permiso) request.getAttribute(ATRIBUTO_PERMISO);
+        if (permiso == null) {
+            ClaseSolicitud clase = ClaseSolicitud.de(request);
+            permiso = limites.get(clase).adquirir(clase.duracionRepresentativa());
+            if (permiso == null) {
+                rechazos.get(clase).increment();
+                contadorErrores.escribir(CodigoError.ERR_SERVICE_OVERLOADED, response);
+                return;
+            }
+            request.setAttribute(ATRIBUTO_PERMISO, permiso);
+        }
+
+        boolean fallo = true;
+        try {
+            filterChain.doFilter(request, response);
+            fallo = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarAlTerminar(permiso));
+            } else {
+                permiso.liberar(fallo || response.getStatus() >= 500);
+            }
+        }
+    }
+
+    // También se filtra el dispatch asíncrono, que es donde termina la solicitud
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    // Health y métricas deben responder aunque la API esté saturada
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ClaseSolicitud.ruta(request).startsWith("/actuator");
+    }
+
+    // Por si el procesamiento asíncrono termina sin volver a pasar por el filtro (timeout, cliente desconectado)
+    private record LiberarAlTerminar(LimiteAdaptativo.Permiso permiso) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permiso.liberar(false);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permiso.liberar(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permiso.liberar(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package med.voll.api.infra.admision;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite de solicitudes simultáneas que se ajusta con AIMD según la latencia observada:
+ * <ul>
+ *     <li>cada solicitud que termina por debajo de {@code latenciaObjetivo} y sin error 5xx, con el límite en uso
+ *     (al menos la mitad ocupado), lo sube en 1, hasta {@code maximo};</li>
+ *     <li>cada solicitud lenta o con error 5xx lo multiplica por {@value #FACTOR_REDUCCION}, hasta {@code minimo}.</li>
+ * </ul>
+ * Con el límite alcanzado, hasta {@code cola} solicitudes esperan como mucho {@code esperaMaxima} a que se libere
+ * un lugar; el resto se rechaza de inmediato.
+ */
+public class LimiteAdaptativo {
+
+    static final double FACTOR_REDUCCION = 0.9;
+
+    private final int minimo;
+    private final int maximo;
+    private final int cola;
+    private final long esperaMaxima;
+    private final long latenciaObjetivo;
+
+    private final AtomicInteger limite;
+    private final AtomicInteger enEjecucion = new AtomicInteger();
+    private final AtomicInteger enCola = new AtomicInteger();
+
+    // Solo para las solicitudes en espera; la admisión sin espera no toma el lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition lugarLibre = lock.newCondition();
+
+    public LimiteAdaptativo(int inicial, int minimo, int maximo, int cola, Duration esperaMaxima, Duration latenciaObjetivo) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.cola = cola;
+        this.esperaMaxima = esperaMaxima.toNanos();
+        this.latenciaObjetivo = latenciaObjetivo.toNanos();
+        this.limite = new AtomicInteger(Math.max(minimo, Math.min(inicial, maximo)));
+    }
+
+    /**
+     * @param muestrear si la duración de esta solicitud debe usarse para ajustar el límite
+     * @return el permiso, que se debe liberar al terminar, o null si la solicitud se rechaza
+     */
+    public Permiso adquirir(boolean muestrear) {
+        if (intentarAdquirir() || esperar()) {
+            return new Permiso(System.nanoTime(), muestrear);
+        }
+        return null;
+    }
+
+    private boolean intentarAdquirir() {
+        while (true) {
+            int actuales = enEjecucion.get();
+            if (actuales >= limite.get()) {
+                return false;
+            }
+            if (enEjecucion.compareAndSet(actuales, actuales + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean esperar() {
+        if (esperaMaxima <= 0) {
+            return false;
+        }
+        if (enCola.incrementAndGet() > cola) {
+            enCola.decrementAndGet();
+            return false;
+        }
+        lock.lock();
+        try {
+            long restante = esperaMaxima;
+            while (!intentarAdquirir()) {
+                if (restante <= 0) {
+                    return false;
+                }
+                restante = lugarLibre.awaitNanos(restante);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+            enCola.decrementAndGet();
+        }
+    }
+
+    private void liberar(long latencia, boolean muestrear, boolean fallo) {
+        int ocupados = enEjecucion.getAndDecrement();
+        if (muestrear) {
+            if (fallo || latencia > latenciaObjetivo) {
+                limite.updateAndGet(actual -> Math.max(minimo, (int) (actual * FACTOR_REDUCCION)));
+            } else if (ocupados * 2 >= limite.get()) {
+                limite.updateAndGet(actual -> Math.min(maximo, actual + 1));
+            }
+        }
+        if (enCola.get() > 0) {
+            lock.lock();
+            try {
+                lugarLibre.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public int limite() {
+        return limite.get();
+    }
+
+    public int enEjecucion() {
+        return enEjecucion.get();
+    }
+
+    public int enCola() {
+        return enCola.get();
+    }
+
+    // Lugar ocupado por una solicitud; liberarlo más de una vez no tiene efecto
+    public final class Permiso {
+
+        private final long inicio;
+        private final boolean muestrear;
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        private Permiso(long inicio, boolean muestrear) {
+            this.inicio = inicio;
+            this.muestrear = muestrear;
+        }
+
+        /**
+         * @param fallo la solicitud terminó con error del servidor: cuenta como señal de sobrecarga
+         */
+        public void liberar(boolean fallo) {
+            if (liberado.compareAndSet(false, true)) {
+                LimiteAdaptativo.this.liberar(System.nanoTime() - inicio, muestrear, fallo);
+            }
+        }
+    }
+}
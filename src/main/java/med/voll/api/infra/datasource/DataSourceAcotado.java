@@ -0,0 +1,120 @@
+package med.voll.api.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limita las conexiones pedidas a la vez al tamaño del pool. Con hilos virtuales puede haber miles de solicitudes
+ * pidiendo conexión al mismo tiempo: en lugar de competir todas dentro de Hikari, esperan su turno en orden de
+ * llegada en un semáforo, que solo ocupa memoria por hilo en espera, y fallan igual que Hikari si el turno no
+ * llega en {@code espera}. El permiso se devuelve al cerrar la conexión.
+ * <p>
+ * Con un permiso en la mano hay como mucho tantos pedidos como conexiones, así que el semáforo reemplaza la espera
+ * de Hikari: {@link #de(HikariDataSource)} reduce su {@code connectionTimeout} al mínimo que admite
+ * ({@value #ESPERA_HIKARI_MS} ms, para la conexión que esté reponiendo) y deja el resto para el turno.
+ * Así el total, en cualquiera de los dos {@code getConnection}, no supera el {@code connectionTimeout} configurado.
+ */
+public class DataSourceAcotado extends DelegatingDataSource {
+
+    static final long ESPERA_HIKARI_MS = 250;
+
+    private final Semaphore permisos;
+    private final long espera;
+
+    public DataSourceAcotado(DataSource dataSource, int maximo, Duration espera) {
+        super(dataSource);
+        this.permisos = new Semaphore(maximo, true);
+        this.espera = espera.toNanos();
+    }
+
+    /**
+     * Envuelve un pool de Hikari aún sin iniciar con tantos permisos como conexiones. Su {@code connectionTimeout}
+     * pasa a ser el total: el turno espera lo que queda tras la espera mínima de Hikari.
+     */
+    public static DataSourceAcotado de(HikariDataSource hikari) {
+        hikari.validate(); // Aplica los valores por defecto de Hikari (tamaño del pool incluido), como al arrancar el pool
+        Duration total = Duration.ofMillis(hikari.getConnectionTimeout());
+        hikari.setConnectionTimeout(ESPERA_HIKARI_MS);
+        Duration turno = total.minusMillis(ESPERA_HIKARI_MS);
+        return new DataSourceAcotado(hikari, hikari.getMaximumPoolSize(), turno.isNegative() ? Duration.ZERO : turno);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return envolver(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return envolver(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    public int disponibles() {
+        return permisos.availablePermits();
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(espera, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Sin conexión disponible tras " + TimeUnit.NANOSECONDS.toMillis(espera) + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    // La conexión devuelta libera el permiso en el primer close()
+    private Connection envolver(Connection conexion) {
+        AtomicBoolean cerrada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(), new Class<?>[]{ConnectionProxy.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "close" -> {
+                        if (cerrada.compareAndSet(false, true)) {
+                            try {
+                                conexion.close();
+                            } finally {
+                                permisos.release();
+                            }
+                        }
+                        yield null;
+                    }
+                    case "isClosed" -> cerrada.get() || conexion.isClosed();
+                    case "getTargetConnection" -> conexion;
+                    case "equals" -> proxy == argumentos[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "DataSourceAcotado[" + conexion + "]";
+                    default -> {
+                        try {
+                            yield metodo.invoke(conexion, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,49 @@
+package med.voll.api.infra.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Origen de las conexiones de solo lectura: la réplica mientras el {@link MonitorReplica} la considere al día,
+ * y el primario en caso contrario o si la réplica no entrega la conexión.
+ */
+public class DataSourceLectura extends DelegatingDataSource {
+
+    private final DataSource primario;
+    private final MonitorReplica monitor;
+
+    public DataSourceLectura(DataSource replica, DataSource primario, MonitorReplica monitor) {
+        super(replica);
+        this.primario = primario;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!monitor.disponible()) {
+            return primario.getConnection();
+        }
+        try {
+            return obtainTargetDataSource().getConnection();
+        } catch (SQLException e) {
+            monitor.marcarNoDisponible();
+            return primario.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (!monitor.disponible()) {
+            return primario.getConnection(username, password);
+        }
+        try {
+            return obtainTargetDataSource().getConnection(username, password);
+        } catch (SQLException e) {
+            monitor.marcarNoDisponible();
+            return primario.getConnection(username, password);
+        }
+    }
+}
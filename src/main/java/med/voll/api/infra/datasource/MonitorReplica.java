@@ -0,0 +1,84 @@
+package med.voll.api.infra.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Mide el retraso de la réplica con un latido: escribe la hora actual en {@code replica_latido} del
+ * primario y lee la que ve la réplica. Mientras el retraso supere {@code api.datasource.replica.retraso-maximo},
+ * o la réplica no responda, las lecturas se envían al primario.
+ */
+public class MonitorReplica implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private final JdbcTemplate primario;
+    private final JdbcTemplate replica;
+    private final Duration retrasoMaximo;
+
+    // Hasta la primera medición no se confía en la réplica
+    private volatile boolean disponible = false;
+    private volatile Duration retraso;
+
+    public MonitorReplica(DataSource primario, DataSource replica, Duration retrasoMaximo) {
+        this.primario = new JdbcTemplate(primario);
+        this.replica = new JdbcTemplate(replica);
+        this.retrasoMaximo = retrasoMaximo;
+    }
+
+    public boolean disponible() {
+        return disponible;
+    }
+
+    @Scheduled(fixedDelayString = "${api.datasource.replica.monitor-intervalo:PT2S}")
+    public void verificar() {
+        try {
+            primario.update("UPDATE replica_latido SET instante_ms = ? WHERE id = 1", System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // Sin latido nuevo el retraso medido crece y la réplica acaba descartándose por sí sola
+            log.warn("No se pudo registrar el latido en el primario: {}", e.getMessage());
+        }
+        medirRetraso();
+    }
+
+    public void medirRetraso() {
+        try {
+            Long instante = replica.queryForObject("SELECT instante_ms FROM replica_latido WHERE id = 1", Long.class);
+            retraso = Duration.ofMillis(Math.max(0, System.currentTimeMillis() - instante));
+            actualizar(retraso.compareTo(retrasoMaximo) <= 0);
+        } catch (RuntimeException e) {
+            retraso = null;
+            actualizar(false);
+        }
+    }
+
+    // Llamado cuando la réplica falla al entregar una conexión, sin esperar a la próxima medición
+    public void marcarNoDisponible() {
+        actualizar(false);
+    }
+
+    private void actualizar(boolean nuevoEstado) {
+        if (nuevoEstado != disponible) {
+            log.info(nuevoEstado ? "Réplica disponible, las lecturas vuelven a ella" : "Réplica retrasada o caída, las lecturas van al primario");
+        }
+        disponible = nuevoEstado;
+    }
+
+    @Override
+    public Health health() {
+        Duration actual = retraso;
+        // La aplicación sigue atendiendo lecturas desde el primario, por eso no se informa DOWN
+        return Health.up()
+                .withDetail("enUso", disponible)
+                .withDetail("retrasoMs", actual != null ? actual.toMillis() : "desconocido")
+                .withDetail("retrasoMaximoMs", retrasoMaximo.toMillis())
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package med.voll.api.infra.errors;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletResponse;
+import med.voll.api.infra.serializacion.JsonSerializado;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Catálogo de los errores con código y mensaje fijos. El cuerpo {@code {"code":...,"message":...}} se codifica
+ * una sola vez al cargar la clase, y la respuesta completa se comparte entre solicitudes: devolver un error
+ * no crea mapas ni cadenas, ni en {@link GlobalErrorHandler} ni en los filtros de seguridad.
+ * <p>
+ * Las respuestas se piden a través de {@link ContadorErrores}, que las cuenta en {@code api.errores}.
+ */
+public enum CodigoError {
+
+    // Token JWT (JwtAuthenticationFilter)
+    ERR_MALFORMED_TOKEN(HttpStatus.BAD_REQUEST, "Token mal formado"),
+    ERR_TOKEN_EXPIRED(HttpStatus.UNAUTHORIZED, "El token ha expirado"),
+    ERR_TOKEN_REVOKED(HttpStatus.UNAUTHORIZED, "El token ha sido revocado"),
+    ERR_INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "Error al validar el token"),
+
+    // Autenticación y refresh tokens
+    ERR_INVALID_CREDENTIALS(HttpStatus.UNAUTHORIZED, "Credenciales inválidas. Verifica tu login y/o clave."),
+    ERR_REFRESH_TOKEN_EXPIRED(HttpStatus.UNAUTHORIZED, "El refresh token ha expirado. Inicia sesión nuevamente."),
+    ERR_REFRESH_TOKEN_REUSED(HttpStatus.UNAUTHORIZED, "El refresh token ya fue utilizado. Se revocaron las sesiones asociadas."),
+    ERR_INVALID_REFRESH_TOKEN(HttpStatus.UNAUTHORIZED, "Refresh token inválido."),
+    ERR_TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "Demasiadas solicitudes. Intenta nuevamente en unos segundos.", "1"),
+    ERR_TOO_MANY_LOGIN_ATTEMPTS(HttpStatus.TOO_MANY_REQUESTS, "Demasiados intentos de inicio de sesión. Intenta nuevamente más tarde."),
+    ERR_SERVICE_OVERLOADED(HttpStatus.SERVICE_UNAVAILABLE, "El servicio está saturado. Intenta nuevamente en unos segundos.", "1"),
+
+    // Solicitudes
+    ERR_INVALID_REQUEST(HttpStatus.BAD_REQUEST, "Solicitud inválida."),
+    ERR_INVALID_SPECIALITY(HttpStatus.BAD_REQUEST, "La especialidad ingresada no es válida."),
+    ERR_INVALID_CURSOR(HttpStatus.BAD_REQUEST, "El cursor de paginación no es válido."),
+    ERR_INVALID_LIST_MODE(HttpStatus.BAD_REQUEST, "El modo de listado debe ser 'pagina' o 'slice'."),
+    ERR_INVALID_EXPORT_FORMAT(HttpStatus.BAD_REQUEST, "El formato de exportación debe ser 'ndjson' o 'csv'."),
+
+    // Registros
+    ERR_RECORD_NOT_FOUND(HttpStatus.NOT_FOUND, "El recurso solicitado no fue encontrado."),
+    ERR_CONSTRAINT_VIOLATION(HttpStatus.CONFLICT, "La operación viola una restricción de integridad de los datos."),
+    ERR_CONCURRENT_MODIFICATION(HttpStatus.CONFLICT, "El registro fue modificado por otra solicitud. Intenta nuevamente."),
+    ERR_PRECONDITION_FAILED(HttpStatus.PRECONDITION_FAILED, "El registro fue modificado. Vuelve a consultarlo antes de modificarlo.");
+
+    private final HttpStatus status;
+    private final String message;
+    private final String reintentarTras; // Segundos para Retry-After, o null
+    private final byte[] cuerpo;
+    private final ResponseEntity<JsonSerializado> respuesta;
+
+    CodigoError(HttpStatus status, String message) {
+        this(status, message, null);
+    }
+
+    CodigoError(HttpStatus status, String message, String reintentarTras) {
+        this.status = status;
+        this.message = message;
+        this.reintentarTras = reintentarTras;
+        this.cuerpo = codificar(name(), message);
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.status(status);
+        if (reintentarTras != null) {
+            respuesta.header(HttpHeaders.RETRY_AFTER, reintentarTras);
+        }
+        this.respuesta = respuesta.body(new JsonSerializado(cuerpo));
+    }
+
+    public HttpStatus status() {
+        return status;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    // Respuesta inmutable para devolver desde un @ExceptionHandler
+    public ResponseEntity<JsonSerializado> respuesta() {
+        return respuesta;
+    }
+
+    // Mismo cuerpo, con un Retry-After calculado para esta solicitud
+    public ResponseEntity<JsonSerializado> respuestaReintentandoTras(long segundos) {
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, Long.toString(segundos)).body(respuesta.getBody());
+    }
+
+    // Para los filtros, que responden antes de llegar a Spring MVC
+    public void escribir(HttpServletResponse response) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(cuerpo.length);
+        if (reintentarTras != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, reintentarTras);
+        }
+        response.getOutputStream().write(cuerpo);
+    }
+
+    private static byte[] codificar(String code, String message) {
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.writeBytes("{\"code\":\"".getBytes(StandardCharsets.UTF_8));
+        json.writeBytes(encoder.quoteAsUTF8(code));
+        json.writeBytes("\",\"message\":\"".getBytes(StandardCharsets.UTF_8));
+        json.writeBytes(encoder.quoteAsUTF8(message));
+        json.writeBytes("\"}".getBytes(StandardCharsets.UTF_8));
+        return json.toByteArray();
+    }
+}
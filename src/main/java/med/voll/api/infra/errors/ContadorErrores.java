@@ -0,0 +1,47 @@
+package med.voll.api.infra.errors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import med.voll.api.infra.serializacion.JsonSerializado;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Entrega las respuestas de {@link CodigoError} contándolas en {@code api.errores{code,status}} del
+ * {@link MeterRegistry} de la aplicación. Los contadores se registran al crear el bean, uno por código,
+ * para que todos aparezcan en las métricas aunque aún no se hayan producido.
+ */
+@Component
+public class ContadorErrores {
+
+    private final Map<CodigoError, Counter> contadores = new EnumMap<>(CodigoError.class);
+
+    public ContadorErrores(MeterRegistry meterRegistry) {
+        for (CodigoError codigo : CodigoError.values()) {
+            contadores.put(codigo, Counter.builder("api.errores")
+                    .tag("code", codigo.name())
+                    .tag("status", Integer.toString(codigo.status().value()))
+                    .register(meterRegistry));
+        }
+    }
+
+    public ResponseEntity<JsonSerializado> respuesta(CodigoError codigo) {
+        contadores.get(codigo).increment();
+        return codigo.respuesta();
+    }
+
+    public ResponseEntity<JsonSerializado> respuestaReintentandoTras(CodigoError codigo, long segundos) {
+        contadores.get(codigo).increment();
+        return codigo.respuestaReintentandoTras(segundos);
+    }
+
+    public void escribir(CodigoError codigo, HttpServletResponse response) throws IOException {
+        contadores.get(codigo).increment();
+        codigo.escribir(response);
+    }
+}
@@ -3,7 +3,20 @@ package med.voll.api.infra.errors;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import med.voll.api.domain.medico.Especialidad;
+import med.voll.api.domain.medico.FiltroBusquedaInvalidoException;
+import med.voll.api.infra.exportacion.FormatoExportacionInvalidoException;
+import med.voll.api.infra.paginacion.CursorInvalidoException;
+import med.voll.api.infra.paginacion.ModoListadoInvalidoException;
+import med.voll.api.infra.security.ColaLoginLlenaException;
+import med.voll.api.infra.security.TokenRefrescoInvalidoException;
+import med.voll.api.infra.serializacion.JsonSerializado;
+import med.voll.api.infra.versionado.VersionNoCoincideException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -12,34 +25,103 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.security.SignatureException;
-import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalErrorHandler {
 
+    // Los errores de código y mensaje fijos salen de CodigoError ya serializados; solo los que llevan datos
+    // de la solicitud (campo duplicado, errores de validación) se arman en cada respuesta
+
+    private final ContadorErrores contadorErrores;
+    private final Counter registrosDuplicados;
+    private final Counter validacionesFallidas;
+
+    // api.errores{code,status}: los de CodigoError los cuenta ContadorErrores; aquí, los que se arman en cada respuesta
+    public GlobalErrorHandler(ContadorErrores contadorErrores, MeterRegistry meterRegistry) {
+        this.contadorErrores = contadorErrores;
+        this.registrosDuplicados = contador(meterRegistry, "ERR_DUPLICATE_RECORD", HttpStatus.CONFLICT);
+        this.validacionesFallidas = contador(meterRegistry, "ERR_VALIDATION_FAILED", HttpStatus.BAD_REQUEST);
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String code, HttpStatus status) {
+        return Counter.builder("api.errores")
+                .tag("code", code)
+                .tag("status", Integer.toString(status.value()))
+                .register(meterRegistry);
+    }
+
     // =======================================
     // Excepciones relacionadas con HTTP
     // =======================================
 
-    @ExceptionHandler({SQLIntegrityConstraintViolationException.class, IllegalStateException.class})
-    public ResponseEntity<Map<String, String>> handleDuplicateRecordException(Exception ex) {
-        Map<String, String> errorResponse = new HashMap<>();
-        errorResponse.put("code", "ERR_DUPLICATE_RECORD");
-        errorResponse.put("message", "Ya existe un registro con este correo o documento.");
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse); // Código 409
+    // El registro se intenta con un único INSERT/UPDATE y son las restricciones UNIQUE las que detectan el duplicado
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<?> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        return RestriccionUnica.campoDuplicado(ex)
+                .<ResponseEntity<?>>map(campo -> {
+                    registrosDuplicados.increment();
+                    Map<String, String> errorResponse = new HashMap<>();
+                    errorResponse.put("code", "ERR_DUPLICATE_RECORD");
+                    errorResponse.put("message", "Ya existe un registro con este valor de " + campo + ".");
+                    errorResponse.put("campo", campo);
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse); // Código 409
+                })
+                .orElseGet(() -> contadorErrores.respuesta(CodigoError.ERR_CONSTRAINT_VIOLATION)); // Código 409
+    }
+
+    // If-Match con una versión que ya no es la actual
+    @ExceptionHandler(VersionNoCoincideException.class)
+    public ResponseEntity<JsonSerializado> handleVersionNoCoincideException(VersionNoCoincideException ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_PRECONDITION_FAILED); // Código 412
+    }
+
+    // Otra transacción actualizó el registro entre la lectura y el UPDATE
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<JsonSerializado> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_CONCURRENT_MODIFICATION); // Código 409
     }
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
-    public ResponseEntity<Map<String, String>> handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
+    public ResponseEntity<JsonSerializado> handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
         if (ex.getMessage().contains("Enum")) {
-            return buildErrorResponse("ERR_INVALID_SPECIALITY", "La especialidad ingresada no es válida.",
-                    HttpStatus.BAD_REQUEST); // Código 400
+            return contadorErrores.respuesta(CodigoError.ERR_INVALID_SPECIALITY); // Código 400
         }
-        return buildErrorResponse("ERR_INVALID_REQUEST", "Solicitud inválida.", HttpStatus.BAD_REQUEST); // Código 400
+        return contadorErrores.respuesta(CodigoError.ERR_INVALID_REQUEST); // Código 400
+    }
+
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<JsonSerializado> handleCursorInvalidoException(CursorInvalidoException ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_INVALID_CURSOR); // Código 400
+    }
+
+    @ExceptionHandler(ModoListadoInvalidoException.class)
+    public ResponseEntity<JsonSerializado> handleModoListadoInvalidoException(ModoListadoInvalidoException ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_INVALID_LIST_MODE); // Código 400
+    }
+
+    @ExceptionHandler(FormatoExportacionInvalidoException.class)
+    public ResponseEntity<JsonSerializado> handleFormatoExportacionInvalidoException(FormatoExportacionInvalidoException ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_INVALID_EXPORT_FORMAT); // Código 400
+    }
+
+    // Prefijo del nombre más largo que la columna en la búsqueda de médicos
+    @ExceptionHandler(FiltroBusquedaInvalidoException.class)
+    public ResponseEntity<JsonSerializado> handleFiltroBusquedaInvalidoException(FiltroBusquedaInvalidoException ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_INVALID_REQUEST); // Código 400
+    }
+
+    // Parámetros de consulta que no se pueden convertir, p. ej. ?especialidad=desconocida
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<JsonSerializado> handleMethodArgumentTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        if (ex.getRequiredType() == Especialidad.class) {
+            return contadorErrores.respuesta(CodigoError.ERR_INVALID_SPECIALITY); // Código 400
+        }
+        return contadorErrores.respuesta(CodigoError.ERR_INVALID_REQUEST); // Código 400
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -52,34 +134,37 @@ public class GlobalErrorHandler {
         });
 
         // Agregar los errores al cuerpo de la respuesta
+        validacionesFallidas.increment();
         errorResponse.put("code", "ERR_VALIDATION_FAILED");
         errorResponse.put("errors", fieldErrors); // Lista de errores por campo
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse); // Código 400
     }
 
-    // Método común para construir la respuesta de error
-    private ResponseEntity<Map<String, String>> buildErrorResponse(String code, String message, HttpStatus status) {
-        Map<String, String> errorResponse = new HashMap<>();
-        errorResponse.put("code", code);
-        errorResponse.put("message", message);
-        return ResponseEntity.status(status).body(errorResponse); // Código 400
-    }
-
     @ExceptionHandler(EntityNotFoundException.class)
-    public ResponseEntity<Map<String, String>> handleEntityNotFoundException(EntityNotFoundException ex) {
-        Map<String, String> errorResponse = new HashMap<>();
-        errorResponse.put("code", "ERR_RECORD_NOT_FOUND");
-        errorResponse.put("message", "El recurso solicitado no fue encontrado.");
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse); // Código 404
+    public ResponseEntity<JsonSerializado> handleEntityNotFoundException(EntityNotFoundException ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_RECORD_NOT_FOUND); // Código 404
     }
 
     @ExceptionHandler({BadCredentialsException.class, UsernameNotFoundException.class})
-    public ResponseEntity<Map<String, String>> handleAuthenticationException(Exception ex) {
-        Map<String, String> errorResponse = new HashMap<>();
-        errorResponse.put("code", "ERR_INVALID_CREDENTIALS");
-        errorResponse.put("message", "Credenciales inválidas. Verifica tu login y/o clave.");
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse); // Código 401
+    public ResponseEntity<JsonSerializado> handleAuthenticationException(Exception ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_INVALID_CREDENTIALS); // Código 401
+    }
+
+    @ExceptionHandler(TokenRefrescoInvalidoException.class)
+    public ResponseEntity<JsonSerializado> handleTokenRefrescoInvalidoException(TokenRefrescoInvalidoException ex) {
+        CodigoError codigo = switch (ex.getMessage()) {
+            case "ERR_REFRESH_TOKEN_EXPIRED" -> CodigoError.ERR_REFRESH_TOKEN_EXPIRED;
+            case "ERR_REFRESH_TOKEN_REUSED" -> CodigoError.ERR_REFRESH_TOKEN_REUSED;
+            default -> CodigoError.ERR_INVALID_REFRESH_TOKEN;
+        };
+        return contadorErrores.respuesta(codigo); // Código 401
+    }
+
+    // Cola de verificación de claves llena: se rechaza antes de calcular ningún hash
+    @ExceptionHandler(ColaLoginLlenaException.class)
+    public ResponseEntity<JsonSerializado> handleColaLoginLlenaException(ColaLoginLlenaException ex) {
+        return contadorErrores.respuesta(CodigoError.ERR_TOO_MANY_REQUESTS); // Código 429, con Retry-After
     }
 
     // =======================================
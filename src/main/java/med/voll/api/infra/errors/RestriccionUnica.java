@@ -0,0 +1,67 @@
+package med.voll.api.infra.errors;
+
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Obtiene el campo del DTO que provocó una violación de una restricción UNIQUE. El dato sale de un
+ * sitio distinto según la base de datos:
+ * <ul>
+ *     <li>MySQL (error 1062): el nombre de la restricción, {@code medicos.email}, porque el índice se llama
+ *     como la columna,</li>
+ *     <li>H2: el mensaje, {@code "public.CONSTRAINT_3_INDEX_E ON public.medicos(email NULLS FIRST) VALUES ..."},
+ *     ya que el nombre de la restricción es uno generado.</li>
+ * </ul>
+ * La columna se traduce a camelCase ({@code documento_identidad} → {@code documentoIdentidad}).
+ */
+final class RestriccionUnica {
+
+    private static final int MYSQL_ENTRADA_DUPLICADA = 1062;
+
+    // H2: la columna va entre paréntesis tras la tabla
+    private static final Pattern COLUMNA_H2 = Pattern.compile("\\sON\\s+[\\w.]+\\((\\w+)");
+    // MySQL: [tabla.]indice, opcionalmente entre comillas
+    private static final Pattern INDICE_MYSQL = Pattern.compile("^[`'\"]?(?:\\w+\\.)?(\\w+)[`'\"]?$");
+
+    private RestriccionUnica() {
+    }
+
+    static Optional<String> campoDuplicado(Throwable ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion
+                    && violacion.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                return columna(violacion).map(RestriccionUnica::camelCase);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<String> columna(ConstraintViolationException violacion) {
+        if (violacion.getErrorCode() == MYSQL_ENTRADA_DUPLICADA) {
+            String restriccion = violacion.getConstraintName();
+            Matcher mysql = INDICE_MYSQL.matcher(restriccion != null ? restriccion.trim() : "");
+            return mysql.matches() ? Optional.of(mysql.group(1).toLowerCase(Locale.ROOT)) : Optional.empty();
+        }
+        String mensaje = violacion.getSQLException().getMessage();
+        Matcher h2 = COLUMNA_H2.matcher(mensaje != null ? mensaje : "");
+        return h2.find() ? Optional.of(h2.group(1).toLowerCase(Locale.ROOT)) : Optional.empty();
+    }
+
+    private static String camelCase(String columna) {
+        StringBuilder campo = new StringBuilder(columna.length());
+        boolean mayuscula = false;
+        for (char c : columna.toCharArray()) {
+            if (c == '_') {
+                mayuscula = true;
+            } else {
+                campo.append(mayuscula ? Character.toUpperCase(c) : c);
+                mayuscula = false;
+            }
+        }
+        return campo.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package med.voll.api.infra.exportacion;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.domain.direccion.DatosDireccion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escribe el resultado de una consulta directamente en la respuesta, fila a fila, a medida que el cursor JDBC
+ * avanza. No se crean entidades ni se acumulan filas, así que la memoria usada no depende del número de registros.
+ * <p>
+ * Con MySQL, {@code api.exportacion.fetch-size} = {@link Integer#MIN_VALUE} hace que Connector/J entregue las filas
+ * una a una en lugar de cargar todo el resultado antes de devolver la primera.
+ */
+@Component
+public class ExportadorFilas {
+
+    // Cada cuántas filas se vacía el buffer hacia el cliente
+    private static final int FILAS_POR_ENVIO = 1_000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportadorFilas(DataSource dataSource, ObjectMapper objectMapper,
+                           @Value("${api.exportacion.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize) {
+        JdbcTemplate plantilla = new JdbcTemplate(dataSource);
+        plantilla.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(plantilla);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param sql        consulta que devuelve las columnas en el mismo orden que {@code campos}
+     * @param parametros parámetros con nombre de la consulta
+     * @param campos     nombres de los campos en la salida; los de {@link DatosDireccion#CAMPOS} se agrupan
+     *                   en {@code direccion} en NDJSON
+     */
+    public void exportar(String sql, Map<String, ?> parametros, List<String> campos,
+                         FormatoExportacion formato, OutputStream salida) throws IOException {
+        try {
+            if (formato == FormatoExportacion.CSV) {
+                exportarCsv(sql, parametros, campos, salida);
+            } else {
+                exportarNdjson(sql, parametros, campos, salida);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportarNdjson(String sql, Map<String, ?> parametros, List<String> campos, OutputStream salida) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(salida)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.configure(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM, true);
+
+            consultar(sql, parametros, (rs, fila) -> {
+                json.writeStartObject();
+                for (int i = 0; i < campos.size(); i++) {
+                    if (!DatosDireccion.CAMPOS.contains(campos.get(i))) {
+                        json.writeFieldName(campos.get(i));
+                        escribirValor(json, rs.getObject(i + 1));
+                    }
+                }
+                json.writeObjectFieldStart("direccion");
+                for (int i = 0; i < campos.size(); i++) {
+                    if (DatosDireccion.CAMPOS.contains(campos.get(i))) {
+                        json.writeFieldName(campos.get(i));
+                        escribirValor(json, rs.getObject(i + 1));
+                    }
+                }
+                json.writeEndObject();
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (fila % FILAS_POR_ENVIO == 0) {
+                    json.flush();
+                }
+            });
+        }
+    }
+
+    private void exportarCsv(String sql, Map<String, ?> parametros, List<String> campos, OutputStream salida) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        csv.write(String.join(",", campos));
+        csv.write('\n');
+
+        consultar(sql, parametros, (rs, fila) -> {
+            for (int i = 0; i < campos.size(); i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                Object valor = rs.getObject(i + 1);
+                if (valor != null) {
+                    csv.write(escaparCsv(valor.toString()));
+                }
+            }
+            csv.write('\n');
+            if (fila % FILAS_POR_ENVIO == 0) {
+                csv.flush();
+            }
+        });
+        csv.flush();
+    }
+
+    private void consultar(String sql, Map<String, ?> parametros, EscritorFila escritor) {
+        long[] fila = {0};
+        jdbcTemplate.query(sql, parametros, (RowCallbackHandler) rs -> {
+            try {
+                escritor.escribir(rs, ++fila[0]);
+            } catch (IOException e) {
+                // Normalmente el cliente cortó la descarga: se aborta la consulta
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void escribirValor(JsonGenerator json, Object valor) throws IOException {
+        switch (valor) {
+            case null -> json.writeNull();
+            case Boolean b -> json.writeBoolean(b);
+            case Long l -> json.writeNumber(l);
+            case Integer i -> json.writeNumber(i);
+            default -> json.writeString(valor.toString());
+        }
+    }
+
+    // Entre comillas solo si hace falta, duplicando las comillas internas (RFC 4180)
+    static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface EscritorFila {
+        void escribir(ResultSet rs, long fila) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,36 @@
+package med.voll.api.infra.exportacion;
+
+import org.springframework.http.MediaType;
+
+public enum FormatoExportacion {
+
+    // Un objeto JSON por línea, con la misma forma que acepta la importación
+    NDJSON("ndjson", "application/x-ndjson"),
+    // Cabecera con los nombres de los campos; la dirección va en columnas planas
+    CSV("csv", "text/csv");
+
+    private final String value;
+    private final MediaType mediaType;
+
+    FormatoExportacion(String value, String mediaType) {
+        this.value = value;
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public static FormatoExportacion fromValue(String value) {
+        for (FormatoExportacion formato : FormatoExportacion.values()) {
+            if (formato.value.equalsIgnoreCase(value)) {
+                return formato;
+            }
+        }
+        throw new FormatoExportacionInvalidoException(value);
+    }
+
+    public String toValue() {
+        return value;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,8 @@
+package med.voll.api.infra.exportacion;
+
+public class FormatoExportacionInvalidoException extends RuntimeException {
+
+    public FormatoExportacionInvalidoException(String formato) {
+        super("Formato de exportación no válido: " + formato);
+    }
+}
@@ -0,0 +1,7 @@
+package med.voll.api.infra.importacion;
+
+public enum EstadoImportacion {
+    CREADO,
+    DUPLICADO,
+    INVALIDO
+}
@@ -0,0 +1,31 @@
+package med.voll.api.infra.importacion;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos aceptados por los endpoints de importación, según la cabecera {@code Content-Type}.
+ */
+public enum FormatoImportacion {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    FormatoImportacion(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static FormatoImportacion fromMediaType(MediaType contentType) {
+        for (FormatoImportacion formato : values()) {
+            if (MediaType.parseMediaType(formato.mediaType).includes(contentType)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de importación no soportado: " + contentType);
+    }
+}
@@ -0,0 +1,204 @@
+package med.voll.api.infra.importacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Importación masiva por lotes de {@code api.importacion.tamano-lote} filas. Por cada lote:
+ * <ol>
+ *     <li>convierte y valida cada fila con las anotaciones del DTO,</li>
+ *     <li>busca en una consulta por columna única los valores que ya existen en la tabla o se repiten en el lote,</li>
+ *     <li>inserta el resto con un único batch JDBC, en su propia transacción,</li>
+ *     <li>escribe en el reporte una línea NDJSON por fila recibida.</li>
+ * </ol>
+ * Solo se mantiene en memoria un lote a la vez, así que el tamaño del archivo no está limitado por el heap.
+ * Un lote confirmado no se deshace si falla uno posterior.
+ */
+@Component
+public class ImportadorRegistros {
+
+    private static final byte[] SALTO_LINEA = {'\n'};
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter escritorReporte;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+
+    public ImportadorRegistros(ObjectMapper objectMapper, Validator validator, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${api.importacion.tamano-lote:500}") int tamanoLote) {
+        this.objectMapper = objectMapper;
+        this.escritorReporte = objectMapper.writerFor(ResultadoFila.class);
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+    }
+
+    public <T> void importar(InputStream entrada, FormatoImportacion formato, TablaImportacion<T> tabla,
+                             OutputStream reporte) throws IOException {
+        try (LectorRegistros lector = new LectorRegistros(entrada, formato, objectMapper)) {
+            List<Fila<T>> lote = new ArrayList<>(tamanoLote);
+            while (lector.hasNext()) {
+                lote.add(convertir(lector.next(), tabla.tipo()));
+                if (lote.size() == tamanoLote) {
+                    procesarLote(lote, tabla, reporte);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                procesarLote(lote, tabla, reporte);
+            }
+        }
+    }
+
+    private <T> Fila<T> convertir(RegistroLeido leido, Class<T> tipo) {
+        if (leido.error() != null) {
+            return Fila.resuelta(ResultadoFila.invalido(leido.linea(), List.of(leido.error())));
+        }
+
+        T registro;
+        try {
+            registro = objectMapper.treeToValue(leido.campos(), tipo);
+        } catch (JsonProcessingException e) {
+            return Fila.resuelta(ResultadoFila.invalido(leido.linea(), List.of(e.getOriginalMessage())));
+        }
+
+        Set<ConstraintViolation<T>> violaciones = validator.validate(registro);
+        if (!violaciones.isEmpty()) {
+            return Fila.resuelta(ResultadoFila.invalido(leido.linea(),
+                    violaciones.stream().map(ConstraintViolation::getMessage).sorted().toList()));
+        }
+        return new Fila<>(leido.linea(), registro, null);
+    }
+
+    private <T> void procesarLote(List<Fila<T>> lote, TablaImportacion<T> tabla, OutputStream reporte) throws IOException {
+        List<Fila<T>> pendientes = lote.stream().filter(fila -> fila.resultado == null).toList();
+        if (!pendientes.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(estado -> insertarLote(pendientes, tabla));
+            } catch (DataIntegrityViolationException e) {
+                // Otro proceso insertó alguno de los valores entre la comprobación y el INSERT: se reintenta fila a fila
+                pendientes.forEach(fila -> insertarFila(fila, tabla));
+            }
+        }
+
+        for (Fila<T> fila : lote) {
+            reporte.write(escritorReporte.writeValueAsBytes(fila.resultado));
+            reporte.write(SALTO_LINEA);
+        }
+        reporte.flush();
+    }
+
+    private <T> void insertarLote(List<Fila<T>> pendientes, TablaImportacion<T> tabla) {
+        Map<String, Set<String>> existentes = buscarExistentes(pendientes, tabla);
+        Map<String, Set<String>> vistos = new HashMap<>();
+
+        List<Fila<T>> nuevas = new ArrayList<>(pendientes.size());
+        for (Fila<T> fila : pendientes) {
+            List<String> repetidos = new ArrayList<>();
+            tabla.valoresUnicos(fila.registro).forEach((campo, valor) -> {
+                boolean enTabla = existentes.getOrDefault(campo, Set.of()).contains(valor);
+                boolean enLote = !vistos.computeIfAbsent(campo, c -> new HashSet<>()).add(valor);
+                if (enTabla || enLote) {
+                    repetidos.add(campo + " ya registrado");
+                }
+            });
+            if (repetidos.isEmpty()) {
+                nuevas.add(fila);
+            } else {
+                fila.resultado = ResultadoFila.duplicado(fila.linea, repetidos);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+
+        GeneratedKeyHolder ids = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(tabla.sqlInsercion(), new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        tabla.asignarParametros(ps, nuevas.get(i).registro);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return nuevas.size();
+                    }
+                },
+                ids);
+
+        List<Map<String, Object>> claves = ids.getKeyList();
+        for (int i = 0; i < nuevas.size(); i++) {
+            Long id = i < claves.size() ? idGenerado(claves.get(i)) : null;
+            nuevas.get(i).resultado = ResultadoFila.creado(nuevas.get(i).linea, id);
+        }
+    }
+
+    // Una consulta IN por columna única con los valores de todo el lote
+    private <T> Map<String, Set<String>> buscarExistentes(List<Fila<T>> filas, TablaImportacion<T> tabla) {
+        Map<String, Set<String>> existentes = new HashMap<>();
+        tabla.columnasUnicas().forEach((campo, columna) -> {
+            Set<String> valores = new HashSet<>();
+            filas.forEach(fila -> valores.add(tabla.valoresUnicos(fila.registro).get(campo)));
+            String sql = "SELECT " + columna + " FROM " + tabla.tabla() + " WHERE " + columna + " IN (:valores)";
+            existentes.put(campo, new HashSet<>(namedJdbcTemplate.queryForList(sql, Map.of("valores", valores), String.class)));
+        });
+        return existentes;
+    }
+
+    private <T> void insertarFila(Fila<T> fila, TablaImportacion<T> tabla) {
+        try {
+            transactionTemplate.executeWithoutResult(estado -> insertarLote(List.of(fila), tabla));
+        } catch (DataIntegrityViolationException e) {
+            fila.resultado = ResultadoFila.duplicado(fila.linea, List.of("registro ya existente"));
+        }
+    }
+
+    // El nombre de la columna de la clave generada depende del driver (id, GENERATED_KEY, ...)
+    private static Long idGenerado(Map<String, Object> clave) {
+        Object valor = clave.values().stream().findFirst().orElse(null);
+        return valor instanceof Number numero ? numero.longValue() : null;
+    }
+
+    private static final class Fila<T> {
+        private final long linea;
+        private final T registro;
+        private ResultadoFila resultado;
+
+        private Fila(long linea, T registro, ResultadoFila resultado) {
+            this.linea = linea;
+            this.registro = registro;
+            this.resultado = resultado;
+        }
+
+        static <T> Fila<T> resuelta(ResultadoFila resultado) {
+            return new Fila<>(resultado.linea(), null, resultado);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package med.voll.api.infra.importacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import med.voll.api.domain.direccion.DatosDireccion;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee el archivo de importación línea a línea, sin cargarlo completo en memoria.
+ * <p>
+ * NDJSON: un objeto JSON por línea, con la misma forma que el cuerpo del POST individual.
+ * CSV: la primera línea es la cabecera con los nombres de los campos; las columnas de la dirección
+ * ({@code calle}, {@code distrito}, ...) van planas y se agrupan en {@code direccion}. Se admiten
+ * campos entre comillas dobles, pero no saltos de línea dentro de un campo.
+ */
+public class LectorRegistros implements Iterator<RegistroLeido>, Closeable {
+
+    private final BufferedReader reader;
+    private final FormatoImportacion formato;
+    private final ObjectMapper objectMapper;
+
+    private List<String> cabecera;
+    private long numeroLinea = 0;
+    private RegistroLeido siguiente;
+
+    public LectorRegistros(InputStream entrada, FormatoImportacion formato, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        this.formato = formato;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (siguiente == null) {
+            siguiente = leer();
+        }
+        return siguiente != null;
+    }
+
+    @Override
+    public RegistroLeido next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        RegistroLeido actual = siguiente;
+        siguiente = null;
+        return actual;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private RegistroLeido leer() {
+        try {
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                if (formato == FormatoImportacion.CSV && cabecera == null) {
+                    cabecera = separarCsv(linea).stream().map(String::trim).toList();
+                    continue;
+                }
+                return formato == FormatoImportacion.CSV ? desdeCsv(linea) : desdeNdjson(linea);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RegistroLeido desdeNdjson(String linea) {
+        try {
+            JsonNode nodo = objectMapper.readTree(linea);
+            if (!nodo.isObject()) {
+                return RegistroLeido.invalido(numeroLinea, "Se esperaba un objeto JSON");
+            }
+            return RegistroLeido.valido(numeroLinea, nodo);
+        } catch (JsonProcessingException e) {
+            return RegistroLeido.invalido(numeroLinea, "JSON mal formado: " + e.getOriginalMessage());
+        }
+    }
+
+    private RegistroLeido desdeCsv(String linea) {
+        List<String> valores = separarCsv(linea);
+        if (valores.size() != cabecera.size()) {
+            return RegistroLeido.invalido(numeroLinea,
+                    "Se esperaban " + cabecera.size() + " columnas y se recibieron " + valores.size());
+        }
+
+        ObjectNode nodo = objectMapper.createObjectNode();
+        ObjectNode direccion = objectMapper.createObjectNode();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String campo = cabecera.get(i);
+            (DatosDireccion.CAMPOS.contains(campo) ? direccion : nodo).put(campo, valores.get(i));
+        }
+        if (!direccion.isEmpty()) {
+            nodo.set("direccion", direccion);
+        }
+        return RegistroLeido.valido(numeroLinea, nodo);
+    }
+
+    // RFC 4180 sin saltos de línea dentro de los campos: "" dentro de comillas es una comilla literal
+    static List<String> separarCsv(String linea) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+}
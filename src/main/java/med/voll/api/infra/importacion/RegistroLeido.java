@@ -0,0 +1,17 @@
+package med.voll.api.infra.importacion;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Una fila del archivo ya separada en campos, o el motivo por el que no se pudo leer.
+ */
+public record RegistroLeido(long linea, JsonNode campos, String error) {
+
+    public static RegistroLeido valido(long linea, JsonNode campos) {
+        return new RegistroLeido(linea, campos, null);
+    }
+
+    public static RegistroLeido invalido(long linea, String error) {
+        return new RegistroLeido(linea, null, error);
+    }
+}
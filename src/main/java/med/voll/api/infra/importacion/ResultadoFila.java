@@ -0,0 +1,29 @@
+package med.voll.api.infra.importacion;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Una línea del reporte de importación. {@code linea} es la línea del archivo recibido (la cabecera CSV es la 1).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResultadoFila(
+        long linea,
+        EstadoImportacion estado,
+        Long id,
+        List<String> errores
+) {
+
+    public static ResultadoFila creado(long linea, Long id) {
+        return new ResultadoFila(linea, EstadoImportacion.CREADO, id, null);
+    }
+
+    public static ResultadoFila duplicado(long linea, List<String> campos) {
+        return new ResultadoFila(linea, EstadoImportacion.DUPLICADO, null, campos);
+    }
+
+    public static ResultadoFila invalido(long linea, List<String> errores) {
+        return new ResultadoFila(linea, EstadoImportacion.INVALIDO, null, errores);
+    }
+}
@@ -0,0 +1,29 @@
+package med.voll.api.infra.importacion;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Describe cómo importar un tipo de registro a su tabla: sus columnas únicas, para detectar duplicados
+ * por lote, y el INSERT que se ejecuta en batch.
+ *
+ * @param <T> DTO de registro, validado con las mismas anotaciones que el POST individual
+ */
+public interface TablaImportacion<T> {
+
+    Class<T> tipo();
+
+    String tabla();
+
+    // Columnas con restricción UNIQUE, indexadas por el nombre del campo en el DTO
+    Map<String, String> columnasUnicas();
+
+    // Valores de las columnas únicas del registro, con las mismas claves que columnasUnicas()
+    Map<String, String> valoresUnicos(T registro);
+
+    // INSERT con un parámetro por columna; el id lo genera la base de datos
+    String sqlInsercion();
+
+    void asignarParametros(PreparedStatement ps, T registro) throws SQLException;
+}
@@ -0,0 +1,67 @@
+package med.voll.api.infra.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate emite durante cada solicitud y las registra en
+ * {@code hibernate.consultas.por.solicitud}, por método y patrón de URI. Un endpoint cuyo valor crece con el
+ * tamaño de la página tiene un problema N+1.
+ * <p>
+ * El conteo se hace con el {@link StatementInspector} de {@link #inspector()}, en el hilo que atiende la solicitud:
+ * no incluye el procesamiento asíncrono (importación, exportación) ni las consultas hechas con JdbcTemplate.
+ */
+public class ConsultasPorSolicitud extends OncePerRequestFilter {
+
+    private final ThreadLocal<int[]> consultas = new ThreadLocal<>();
+    private final MeterRegistry meterRegistry;
+
+    public ConsultasPorSolicitud(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Se registra en Hibernate; fuera de una solicitud (tareas programadas, arranque) no cuenta nada
+    public StatementInspector inspector() {
+        return sql -> {
+            int[] contador = consultas.get();
+            if (contador != null) {
+                contador[0]++;
+            }
+            return sql;
+        };
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int[] contador = new int[1];
+        consultas.set(contador);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            consultas.remove();
+            DistributionSummary.builder("hibernate.consultas.por.solicitud")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri(request))
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(100.0)
+                    .register(meterRegistry)
+                    .record(contador[0]);
+        }
+    }
+
+    // El patrón del handler (/medicos/{id}), no la URI real, para no crear una serie por id
+    private static String uri(HttpServletRequest request) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return patron != null ? patron.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,43 @@
+package med.voll.api.infra.paginacion;
+
+import med.voll.api.domain.medico.MedicoRepository;
+import med.voll.api.domain.paciente.PacienteRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Totales aproximados de médicos y pacientes activos para los listados en modo slice.
+ * Se recalculan cada {@code api.listados.contador-intervalo} en lugar de en cada solicitud.
+ */
+@Component
+@ConditionalOnProperty(name = "api.listados.total-aproximado", havingValue = "true")
+public class ContadorListados {
+
+    private final MedicoRepository medicoRepository;
+    private final PacienteRepository pacienteRepository;
+
+    private volatile Long medicosActivos;
+    private volatile Long pacientesActivos;
+
+    public ContadorListados(MedicoRepository medicoRepository, PacienteRepository pacienteRepository) {
+        this.medicoRepository = medicoRepository;
+        this.pacienteRepository = pacienteRepository;
+    }
+
+    public Long medicosActivos() {
+        return medicosActivos;
+    }
+
+    public Long pacientesActivos() {
+        return pacientesActivos;
+    }
+
+    @Scheduled(fixedDelayString = "${api.listados.contador-intervalo:PT1M}")
+    @Transactional(readOnly = true)
+    public void refrescar() {
+        medicosActivos = medicoRepository.countByActivoTrue();
+        pacientesActivos = pacienteRepository.countByActivoTrue();
+    }
+}
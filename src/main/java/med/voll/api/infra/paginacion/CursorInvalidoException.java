@@ -0,0 +1,8 @@
+package med.voll.api.infra.paginacion;
+
+public class CursorInvalidoException extends RuntimeException {
+
+    public CursorInvalidoException() {
+        super("ERR_INVALID_CURSOR");
+    }
+}
@@ -0,0 +1,33 @@
+package med.voll.api.infra.paginacion;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición dentro de un listado ordenado por (nombre, id). Se entrega al cliente como un token
+ * opaco: el siguiente bloque empieza justo después de esta fila, sin OFFSET.
+ */
+public record CursorListado(
+        String nombre,
+        Long id
+) {
+
+    public String codificar() {
+        String valor = id + ":" + nombre;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Un cursor vacío representa el inicio del listado y se decodifica como null
+    public static CursorListado decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(':');
+            return new CursorListado(valor.substring(separador + 1), Long.parseLong(valor.substring(0, separador)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new CursorInvalidoException();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package med.voll.api.infra.paginacion;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bloque de un listado por cursor. {@code siguienteCursor} es null en el último bloque y
+ * {@code total} solo se calcula cuando el cliente lo pide, porque exige un COUNT aparte.
+ */
+public record DatosPaginaCursor<T>(
+        List<T> contenido,
+        String siguienteCursor,
+        boolean tieneSiguiente,
+        Long total
+) {
+
+    public static final int TAMANO_MAXIMO = 100;
+
+    public static int tamanoValido(int tamano) {
+        return Math.max(1, Math.min(tamano, TAMANO_MAXIMO));
+    }
+
+    /**
+     * @param filas    resultado de la consulta, pedido con {@code tamano + 1} filas para saber si hay más
+     * @param tamano   tamaño del bloque solicitado
+     * @param cursorDe posición de una fila dentro del orden (nombre, id)
+     * @param total    total de registros, o null si no se pidió
+     */
+    public static <T> DatosPaginaCursor<T> de(List<T> filas, int tamano, Function<T, CursorListado> cursorDe, Long total) {
+        boolean tieneSiguiente = filas.size() > tamano;
+        List<T> contenido = tieneSiguiente ? filas.subList(0, tamano) : filas;
+        String siguienteCursor = tieneSiguiente ? cursorDe.apply(contenido.get(tamano - 1)).codificar() : null;
+        return new DatosPaginaCursor<>(List.copyOf(contenido), siguienteCursor, tieneSiguiente, total);
+    }
+}
@@ -0,0 +1,28 @@
+package med.voll.api.infra.paginacion;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Página sin total exacto: se obtiene con una sola consulta que pide una fila de más.
+ * {@code totalAproximado} viene de un contador refrescado periódicamente, o es null si está desactivado.
+ */
+public record DatosPaginaSlice<T>(
+        List<T> contenido,
+        int pagina,
+        int tamano,
+        boolean tieneSiguiente,
+        Long totalAproximado
+) {
+
+    public static <T> DatosPaginaSlice<T> de(Slice<T> slice, Long totalAproximado) {
+        return new DatosPaginaSlice<>(
+                slice.getContent(),
+                slice.getNumber(),
+                slice.getSize(),
+                slice.hasNext(),
+                totalAproximado
+        );
+    }
+}
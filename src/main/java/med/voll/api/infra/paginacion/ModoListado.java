@@ -0,0 +1,29 @@
+package med.voll.api.infra.paginacion;
+
+public enum ModoListado {
+
+    // Página con total de elementos y de páginas (requiere un COUNT por consulta)
+    PAGINA("pagina"),
+    // Solo indica si hay una página siguiente, sin COUNT
+    SLICE("slice");
+
+    private final String value;
+
+    ModoListado(String value) {
+        this.value = value;
+    }
+
+    public static ModoListado fromValue(String value) {
+        for (ModoListado modo : ModoListado.values()) {
+            if (modo.value.equalsIgnoreCase(value)) {
+                return modo;
+            }
+        }
+        throw new ModoListadoInvalidoException(value);
+    }
+
+    // El parámetro de la solicitud tiene prioridad sobre el modo configurado
+    public static ModoListado resolver(String solicitado, String configurado) {
+        return fromValue(solicitado != null && !solicitado.isBlank() ? solicitado : configurado);
+    }
+}
@@ -0,0 +1,8 @@
+package med.voll.api.infra.paginacion;
+
+public class ModoListadoInvalidoException extends RuntimeException {
+
+    public ModoListadoInvalidoException(String modo) {
+        super("Modo de listado no válido: " + modo);
+    }
+}
@@ -0,0 +1,43 @@
+package med.voll.api.infra.security;
+
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.time.Duration;
+
+/**
+ * Elige la fuerza de BCrypt según lo que tarda un hash en esta máquina.
+ * Cada punto de fuerza duplica el trabajo, así que basta medir la fuerza mínima y extrapolar.
+ */
+public final class BCryptCalibrador {
+
+    private static final int MEDICIONES = 3;
+
+    private BCryptCalibrador() {
+    }
+
+    /**
+     * @param tiempoObjetivo tiempo de verificación deseado por contraseña
+     * @param fuerzaMinima   fuerza que nunca se baja, aunque la máquina sea lenta
+     * @param fuerzaMaxima   tope de la fuerza, aunque la máquina sea rápida
+     * @return la mayor fuerza cuyo tiempo estimado no supera el objetivo, dentro de los límites
+     */
+    public static int calibrar(Duration tiempoObjetivo, int fuerzaMinima, int fuerzaMaxima) {
+        String salt = BCrypt.gensalt(fuerzaMinima);
+        BCrypt.hashpw("calentamiento", salt); // Descarta la primera medición (JIT)
+
+        long mejorNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICIONES; i++) {
+            long inicio = System.nanoTime();
+            BCrypt.hashpw("calibracion", salt);
+            mejorNanos = Math.min(mejorNanos, System.nanoTime() - inicio);
+        }
+
+        int fuerza = fuerzaMinima;
+        long estimadoNanos = mejorNanos;
+        while (fuerza < fuerzaMaxima && estimadoNanos * 2 <= tiempoObjetivo.toNanos()) {
+            estimadoNanos *= 2;
+            fuerza++;
+        }
+        return fuerza;
+    }
+}
@@ -0,0 +1,39 @@
+package med.voll.api.infra.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Mide cada hash y cada verificación de contraseña ({@code bcrypt.hash} y {@code bcrypt.verificacion}).
+ * Con la fuerza calibrada al arrancar, la verificación debería rondar {@code api.security.bcrypt.tiempo-objetivo};
+ * si sube, las CPU están saturadas y los logins se acumulan en la cola de {@link EjecutorLogin}.
+ */
+public class CodificadorClaveMedido implements PasswordEncoder {
+
+    private final PasswordEncoder codificador;
+    private final Timer tiempoHash;
+    private final Timer tiempoVerificacion;
+
+    public CodificadorClaveMedido(PasswordEncoder codificador, MeterRegistry meterRegistry) {
+        this.codificador = codificador;
+        this.tiempoHash = Timer.builder("bcrypt.hash").register(meterRegistry);
+        this.tiempoVerificacion = Timer.builder("bcrypt.verificacion").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return tiempoHash.record(() -> codificador.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(tiempoVerificacion.record(() -> codificador.matches(rawPassword, encodedPassword)));
+    }
+
+    // Lo consulta el login para rehacer con la fuerza actual los hashes más débiles
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return codificador.upgradeEncoding(encodedPassword);
+    }
+}
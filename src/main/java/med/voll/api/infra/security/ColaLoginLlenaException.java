@@ -0,0 +1,11 @@
+package med.voll.api.infra.security;
+
+/**
+ * La cola de {@link EjecutorLogin} está llena: el login se rechaza sin calcular el hash.
+ */
+public class ColaLoginLlenaException extends RuntimeException {
+
+    public ColaLoginLlenaException() {
+        super("ERR_TOO_MANY_REQUESTS");
+    }
+}
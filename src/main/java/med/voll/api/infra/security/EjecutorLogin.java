@@ -0,0 +1,48 @@
+package med.voll.api.infra.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado donde se ejecuta la verificación de contraseñas (BCrypt) del login.
+ * Así una avalancha de logins no ocupa los hilos de Tomcat que atienden el resto de endpoints:
+ * cuando la cola se llena, la tarea se rechaza de inmediato con {@link ColaLoginLlenaException}.
+ */
+@Component
+public class EjecutorLogin {
+
+    private final ThreadPoolExecutor executor;
+
+    public EjecutorLogin(@Value("${api.security.login.hilos:0}") int hilos,
+                         @Value("${api.security.login.cola:100}") int cola) {
+        int tamano = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                tamano, tamano,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "login-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                (tarea, ejecutor) -> {
+                    throw new ColaLoginLlenaException();
+                }
+        );
+    }
+
+    public <T> CompletableFuture<T> ejecutar(Supplier<T> tarea) {
+        return CompletableFuture.supplyAsync(tarea, executor);
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdown();
+    }
+}
@@ -9,24 +9,37 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import med.voll.api.domain.usuario.Usuario;
 import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.errors.CodigoError;
+import med.voll.api.infra.errors.ContadorErrores;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final TokenService tokenService;
     private final UsuarioRepository usuarioRepository;
+    private final RevocacionTokenService revocacionTokenService;
+    private final ContadorErrores contadorErrores;
 
-    public JwtAuthenticationFilter(TokenService tokenService, UsuarioRepository usuarioRepository) {
+    // Si está activo, la autenticación se arma con los claims del token sin consultar la base de datos
+    private final boolean principalSinEstado;
+
+    public JwtAuthenticationFilter(TokenService tokenService, UsuarioRepository usuarioRepository,
+                                   RevocacionTokenService revocacionTokenService, ContadorErrores contadorErrores,
+                                   @Value("${api.security.principal-sin-estado:false}") boolean principalSinEstado) {
         this.tokenService = tokenService;
         this.usuarioRepository = usuarioRepository;
+        this.revocacionTokenService = revocacionTokenService;
+        this.contadorErrores = contadorErrores;
+        this.principalSinEstado = principalSinEstado;
     }
 
     @Override
@@ -35,56 +48,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = request.getHeader("Authorization");
 
         if (token != null && token.startsWith("Bearer ")) {
-            token = token.replace("Bearer ", "");
+            token = token.substring("Bearer ".length());
             try {
-                if (tokenService.validarToken(token)) {
-                    String username = tokenService.getUsernameFromToken(token);
+                // Una sola verificación: firma, issuer, expiración y lectura de claims
+                UsuarioAutenticado usuarioToken = tokenService.verificarToken(token);
+
+                if (revocacionTokenService.estaRevocado(usuarioToken)) {
+                    contadorErrores.escribir(CodigoError.ERR_TOKEN_REVOKED, response);
+                    return;
+                }
 
+                if (principalSinEstado) {
+                    // El rol ya viene firmado en el token: no hace falta releer el usuario
+                    var authentication = new UsernamePasswordAuthenticationToken(usuarioToken, null,
+                            List.of(new SimpleGrantedAuthority(usuarioToken.rol())));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
                     // Obtener usuario desde la base de datos utilizando el login
-                    Usuario usuario = (Usuario) usuarioRepository.findByLogin(username);
+                    Usuario usuario = (Usuario) usuarioRepository.findByLogin(usuarioToken.login());
 
                     // Si el usuario es nulo, no manejamos la excepción aquí
                     if (usuario != null) {
                         var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
                         SecurityContextHolder.getContext().setAuthentication(authentication);
                     }
-                } else {
-                    sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "ERR_INVALID_TOKEN", "Token inválido o expirado");
-                    return;
                 }
             } catch (MalformedJwtException e) {
-                sendErrorResponse(response, HttpServletResponse.SC_BAD_REQUEST, "ERR_MALFORMED_TOKEN", "Token mal formado");
+                contadorErrores.escribir(CodigoError.ERR_MALFORMED_TOKEN, response);
                 return;
             } catch (ExpiredJwtException e) {
-                sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "ERR_TOKEN_EXPIRED", "El token ha expirado");
+                contadorErrores.escribir(CodigoError.ERR_TOKEN_EXPIRED, response);
                 return;
             } catch (JwtException e) {
-                sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "ERR_INVALID_TOKEN", "Error al validar el token");
+                contadorErrores.escribir(CodigoError.ERR_INVALID_TOKEN, response);
                 return;
             }
         }
 
         filterChain.doFilter(request, response);
     }
-
-    private void sendErrorResponse(HttpServletResponse response, int statusCode, String code, String message) throws IOException {
-        response.setStatus(statusCode);
-        Map<String, String> errorResponse = new HashMap<>();
-        errorResponse.put("code", code);
-        errorResponse.put("message", message);
-        response.setContentType("application/json");
-        response.getWriter().write(convertMapToJson(errorResponse));
-    }
-
-    private String convertMapToJson(Map<String, String> map) {
-        StringBuilder json = new StringBuilder("{");
-        for (Map.Entry<String, String> entry : map.entrySet()) {
-            json.append("\"").append(entry.getKey()).append("\": \"").append(entry.getValue()).append("\", ");
-        }
-        if (json.length() > 1) {
-            json.setLength(json.length() - 2);
-        }
-        json.append("}");
-        return json.toString();
-    }
 }
\ No newline at end of file
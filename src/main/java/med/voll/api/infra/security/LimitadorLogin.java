@@ -0,0 +1,193 @@
+package med.voll.api.infra.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los intentos de login por IP y por login antes de consultar la base de datos o calcular ningún hash.
+ * <ul>
+ *     <li>Ritmo: una cubeta de tokens por cliente, con ráfaga y recarga configurables. Se implementa como GCRA
+ *     (el instante teórico de la próxima llegada en un único {@link AtomicLong}), que admite lo mismo que la
+ *     cubeta pero se actualiza con un compareAndSet, sin locks ni objetos nuevos por intento.</li>
+ *     <li>Bloqueo: tras {@code fallos-antes-de-bloqueo} claves incorrectas seguidas el cliente queda bloqueado
+ *     {@code bloqueo-inicial}, duplicándose con cada fallo adicional hasta {@code bloqueo-maximo}. Un login
+ *     correcto pone a cero los fallos de esa IP y de ese login.</li>
+ * </ul>
+ * Cada tabla guarda como mucho {@code maximo-claves} clientes y olvida los que llevan {@code inactividad} sin intentos.
+ */
+@Component
+public class LimitadorLogin {
+
+    private final LongSupplier reloj;
+    private final Cubeta cubetaIp;
+    private final Cubeta cubetaLogin;
+    private final int fallosAntesDeBloqueo;
+    private final long bloqueoInicial;
+    private final long bloqueoMaximo;
+    private final Cache<String, EstadoCliente> porIp;
+    private final Cache<String, EstadoCliente> porLogin;
+
+    @Autowired
+    public LimitadorLogin(@Value("${api.security.login.limite.rafaga-ip:20}") int rafagaIp,
+                          @Value("${api.security.login.limite.por-minuto-ip:10}") double porMinutoIp,
+                          @Value("${api.security.login.limite.rafaga-login:5}") int rafagaLogin,
+                          @Value("${api.security.login.limite.por-minuto-login:3}") double porMinutoLogin,
+                          @Value("${api.security.login.limite.fallos-antes-de-bloqueo:5}") int fallosAntesDeBloqueo,
+                          @Value("${api.security.login.limite.bloqueo-inicial:PT30S}") Duration bloqueoInicial,
+                          @Value("${api.security.login.limite.bloqueo-maximo:PT15M}") Duration bloqueoMaximo,
+                          @Value("${api.security.login.limite.inactividad:PT15M}") Duration inactividad,
+                          @Value("${api.security.login.limite.maximo-claves:100000}") long maximoClaves) {
+        this(System::nanoTime, Cubeta.de(rafagaIp, porMinutoIp), Cubeta.de(rafagaLogin, porMinutoLogin),
+                fallosAntesDeBloqueo, bloqueoInicial, bloqueoMaximo, inactividad, maximoClaves);
+    }
+
+    // Con un reloj controlable, para las pruebas
+    LimitadorLogin(LongSupplier reloj, Cubeta cubetaIp, Cubeta cubetaLogin, int fallosAntesDeBloqueo,
+                   Duration bloqueoInicial, Duration bloqueoMaximo, Duration inactividad, long maximoClaves) {
+        this.reloj = reloj;
+        this.cubetaIp = cubetaIp;
+        this.cubetaLogin = cubetaLogin;
+        this.fallosAntesDeBloqueo = fallosAntesDeBloqueo;
+        this.bloqueoInicial = bloqueoInicial.toNanos();
+        this.bloqueoMaximo = bloqueoMaximo.toNanos();
+
+        // Un cliente bloqueado no debe olvidarse antes de que termine su bloqueo
+        long olvido = Math.max(inactividad.toNanos(), this.bloqueoMaximo);
+        this.porIp = Caffeine.newBuilder().maximumSize(maximoClaves).expireAfterAccess(olvido, TimeUnit.NANOSECONDS).build();
+        this.porLogin = Caffeine.newBuilder().maximumSize(maximoClaves).expireAfterAccess(olvido, TimeUnit.NANOSECONDS).build();
+    }
+
+    /**
+     * Consume un intento de la IP y otro del login, solo si ambas cubetas lo admiten: un intento rechazado por
+     * una no gasta el de la otra.
+     *
+     * @return 0 si el intento se admite, o los segundos que el cliente debe esperar (para Retry-After)
+     */
+    public long segundosDeEspera(String ip, String login) {
+        long ahora = reloj.getAsLong();
+        EstadoCliente estadoIp = estado(porIp, ip, ahora);
+        EstadoCliente estadoLogin = estado(porLogin, normalizar(login), ahora);
+
+        long espera = Math.max(estadoIp.bloqueo(ahora), estadoLogin.bloqueo(ahora));
+        if (espera == 0) {
+            espera = Math.max(estadoIp.espera(cubetaIp, ahora), estadoLogin.espera(cubetaLogin, ahora));
+        }
+        if (espera == 0) {
+            espera = estadoIp.consumir(cubetaIp, ahora);
+            if (espera == 0) {
+                espera = estadoLogin.consumir(cubetaLogin, ahora);
+                if (espera > 0) {
+                    estadoIp.devolver(cubetaIp); // Otro intento del mismo login ganó la carrera entre la consulta y el consumo
+                }
+            }
+        }
+        return espera == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    // Clave incorrecta o usuario inexistente
+    public void registrarFallo(String ip, String login) {
+        long ahora = reloj.getAsLong();
+        estado(porIp, ip, ahora).registrarFallo(ahora);
+        estado(porLogin, normalizar(login), ahora).registrarFallo(ahora);
+    }
+
+    public void registrarExito(String ip, String login) {
+        reiniciarFallos(porIp.getIfPresent(ip));
+        reiniciarFallos(porLogin.getIfPresent(normalizar(login)));
+    }
+
+    private static void reiniciarFallos(EstadoCliente estado) {
+        if (estado != null) {
+            estado.fallos.set(0);
+        }
+    }
+
+    private EstadoCliente estado(Cache<String, EstadoCliente> tabla, String clave, long ahora) {
+        return tabla.get(clave, c -> new EstadoCliente(ahora));
+    }
+
+    private static String normalizar(String login) {
+        return login == null ? "" : login.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param intervalo nanosegundos entre dos tokens (recarga)
+     * @param tolerancia cuánto puede adelantarse la llegada teórica: {@code rafaga} intervalos
+     */
+    record Cubeta(long intervalo, long tolerancia) {
+
+        static Cubeta de(int rafaga, double porMinuto) {
+            long intervalo = (long) (TimeUnit.MINUTES.toNanos(1) / porMinuto);
+            return new Cubeta(intervalo, intervalo * rafaga);
+        }
+    }
+
+    private final class EstadoCliente {
+
+        // Instante (System.nanoTime) en que la cubeta vuelve a estar llena
+        private final AtomicLong llegadaTeorica;
+        private final AtomicInteger fallos = new AtomicInteger();
+        private final AtomicLong bloqueadoHasta;
+
+        private EstadoCliente(long ahora) {
+            this.llegadaTeorica = new AtomicLong(ahora);
+            this.bloqueadoHasta = new AtomicLong(ahora);
+        }
+
+        // Nanosegundos restantes de bloqueo, o 0
+        long bloqueo(long ahora) {
+            return Math.max(0, bloqueadoHasta.get() - ahora);
+        }
+
+        // Como consumir, pero sin gastar el token
+        long espera(Cubeta cubeta, long ahora) {
+            return Math.max(0, siguiente(llegadaTeorica.get(), cubeta, ahora) - ahora - cubeta.tolerancia());
+        }
+
+        // 0 si había un token, o los nanosegundos hasta el siguiente
+        long consumir(Cubeta cubeta, long ahora) {
+            while (true) {
+                long actual = llegadaTeorica.get();
+                long siguiente = siguiente(actual, cubeta, ahora);
+                long adelanto = siguiente - ahora - cubeta.tolerancia();
+                if (adelanto > 0) {
+                    return adelanto;
+                }
+                if (llegadaTeorica.compareAndSet(actual, siguiente)) {
+                    return 0;
+                }
+            }
+        }
+
+        // Deshace un consumir que terminó admitido
+        void devolver(Cubeta cubeta) {
+            llegadaTeorica.addAndGet(-cubeta.intervalo());
+        }
+
+        private static long siguiente(long actual, Cubeta cubeta, long ahora) {
+            return (actual - ahora > 0 ? actual : ahora) + cubeta.intervalo();
+        }
+
+        void registrarFallo(long ahora) {
+            int exceso = fallos.incrementAndGet() - fallosAntesDeBloqueo;
+            if (exceso >= 0) {
+                long bloqueo = bloqueoInicial;
+                for (int i = 0; i < exceso && bloqueo < bloqueoMaximo; i++) {
+                    bloqueo <<= 1;
+                }
+                bloqueo = Math.min(bloqueo, bloqueoMaximo);
+                bloqueadoHasta.accumulateAndGet(ahora + bloqueo, (anterior, nuevo) -> nuevo - anterior > 0 ? nuevo : anterior);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package med.voll.api.infra.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Rota las claves de firma de {@link TokenService} sin reiniciar: cada {@code api.security.rotacion.intervalo}
+ * relee {@code api.security.claves-archivo} (por ejemplo un secreto montado que el orquestador actualiza) y,
+ * si cambió, reemplaza el conjunto de claves. El archivo usa el formato de properties:
+ * <pre>
+ * kid=v2
+ * claves=v1:secreto1,v2:secreto2
+ * </pre>
+ * {@code claves} lista todas las claves aceptadas, incluida la activa; una clave que se quita del archivo deja
+ * de aceptarse. Si el archivo falta o es inválido se conservan las claves en uso.
+ */
+@Component
+@ConditionalOnProperty(name = "api.security.claves-archivo")
+public class RecargaClavesFirma {
+
+    private static final Logger log = LoggerFactory.getLogger(RecargaClavesFirma.class);
+
+    private final TokenService tokenService;
+    private final Path archivo;
+
+    // Contenido aplicado por última vez, para no reconstruir las claves si el archivo no cambió
+    private String aplicado;
+
+    public RecargaClavesFirma(TokenService tokenService, @Value("${api.security.claves-archivo}") String archivo) {
+        this.tokenService = tokenService;
+        this.archivo = Path.of(archivo);
+    }
+
+    @Scheduled(fixedDelayString = "${api.security.rotacion.intervalo:PT1M}")
+    public synchronized void recargar() {
+        try {
+            String contenido = Files.readString(archivo);
+            if (contenido.equals(aplicado)) {
+                return;
+            }
+            Properties propiedades = new Properties();
+            propiedades.load(new StringReader(contenido));
+            String kid = propiedades.getProperty("kid", "").trim();
+            tokenService.rotarClaves(kid, TokenService.parsearClaves(propiedades.getProperty("claves")));
+            aplicado = contenido;
+            log.info("Claves de firma recargadas desde {}, kid activo {}", archivo, kid);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("No se pudieron recargar las claves de firma desde {}: {}", archivo, e.getMessage());
+        }
+    }
+}
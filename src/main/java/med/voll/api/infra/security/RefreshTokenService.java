@@ -0,0 +1,104 @@
+package med.voll.api.infra.security;
+
+import med.voll.api.domain.usuario.RefreshToken;
+import med.voll.api.domain.usuario.RefreshTokenRepository;
+import med.voll.api.domain.usuario.Usuario;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Emite y rota refresh tokens opacos. Cada uso entrega un token nuevo de la misma familia y
+ * consume el anterior; si un token ya consumido vuelve a presentarse, se asume que fue robado
+ * y se revoca toda la familia. El refresco nunca toca el hash de la clave del usuario.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenService tokenService;
+    private final Duration expiracion;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, TokenService tokenService,
+                               @Value("${api.security.token.expiracion-refresco:P7D}") Duration expiracion) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenService = tokenService;
+        this.expiracion = expiracion;
+    }
+
+    // Inicia una familia nueva (tras un login con usuario y clave)
+    @Transactional
+    public TokensEmitidos emitir(Usuario usuario) {
+        return new TokensEmitidos(tokenService.gerarToken(usuario), crear(usuario, UUID.randomUUID().toString()));
+    }
+
+    // La revocación de la familia debe persistir aunque se lance la excepción
+    @Transactional(noRollbackFor = TokenRefrescoInvalidoException.class)
+    public TokensEmitidos refrescar(String refreshToken) {
+        RefreshToken actual = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new TokenRefrescoInvalidoException("ERR_INVALID_REFRESH_TOKEN"));
+
+        if (actual.isRevocado()) {
+            throw new TokenRefrescoInvalidoException("ERR_INVALID_REFRESH_TOKEN");
+        }
+        if (actual.isUsado()) {
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            throw new TokenRefrescoInvalidoException("ERR_REFRESH_TOKEN_REUSED");
+        }
+        // Antes de consumirlo: un token vencido se rechaza sin marcarlo usado, y presentarlo otra vez no es reutilización
+        if (actual.estaExpirado(Instant.now())) {
+            throw new TokenRefrescoInvalidoException("ERR_REFRESH_TOKEN_EXPIRED");
+        }
+        if (refreshTokenRepository.marcarUsado(actual.getId()) == 0) {
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            throw new TokenRefrescoInvalidoException("ERR_REFRESH_TOKEN_REUSED");
+        }
+
+        Usuario usuario = actual.getUsuario();
+        Instant validosDesde = usuario.getTokensValidosDesde();
+        if (validosDesde != null && actual.getCreadoEn().isBefore(validosDesde)) {
+            refreshTokenRepository.revocarFamilia(actual.getFamilia());
+            throw new TokenRefrescoInvalidoException("ERR_INVALID_REFRESH_TOKEN");
+        }
+
+        return new TokensEmitidos(tokenService.gerarToken(usuario), crear(usuario, actual.getFamilia()));
+    }
+
+    @Scheduled(fixedDelayString = "${api.security.token.limpieza-intervalo:PT1H}")
+    @Transactional
+    public void eliminarExpirados() {
+        refreshTokenRepository.eliminarExpirados(Instant.now());
+    }
+
+    private String crear(Usuario usuario, String familia) {
+        byte[] aleatorio = new byte[32];
+        RANDOM.nextBytes(aleatorio);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(aleatorio);
+
+        Instant ahora = Instant.now();
+        refreshTokenRepository.save(new RefreshToken(usuario, hash(token), familia, ahora, ahora.plus(expiracion)));
+        return token;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package med.voll.api.infra.security;
+
+import med.voll.api.domain.usuario.DatosRevocacionUsuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantiene en memoria, por login, el instante a partir del cual los JWT vuelven a ser válidos.
+ * La consulta por token es una búsqueda en un mapa; la tabla de usuarios solo se lee
+ * periódicamente, por lo que una revocación hecha en otro nodo tarda como máximo
+ * {@code api.security.revocacion.intervalo} en aplicarse aquí.
+ */
+@Service
+public class RevocacionTokenService {
+
+    private final UsuarioRepository usuarioRepository;
+
+    // Solo avanza: revocar y refrescar combinan con el instante más reciente, así un refresco con datos
+    // leídos antes de una revocación no la deshace
+    private final Map<String, Instant> validosDesde = new ConcurrentHashMap<>();
+
+    public RevocacionTokenService(UsuarioRepository usuarioRepository) {
+        this.usuarioRepository = usuarioRepository;
+    }
+
+    public boolean estaRevocado(UsuarioAutenticado usuario) {
+        Instant desde = validosDesde.get(usuario.login());
+        return desde != null && (usuario.emision() == null || usuario.emision().isBefore(desde));
+    }
+
+    // Invalida todos los JWT y refresh tokens emitidos hasta ahora para el usuario (cierre de sesión)
+    @Transactional
+    public void revocar(String login) {
+        Instant ahora = Instant.now();
+        usuarioRepository.revocarTokens(login, ahora);
+        registrar(login, ahora);
+    }
+
+    // Sin readOnly: se lee del primario, no de una réplica que aún no vio las últimas revocaciones
+    @Scheduled(fixedDelayString = "${api.security.revocacion.intervalo:PT30S}")
+    @Transactional
+    public void refrescar() {
+        usuarioRepository.findRevocaciones()
+                .forEach(revocacion -> registrar(revocacion.login(), revocacion.tokensValidosDesde()));
+    }
+
+    private void registrar(String login, Instant desde) {
+        validosDesde.merge(login, desde, (actual, nuevo) -> nuevo.isAfter(actual) ? nuevo : actual);
+    }
+}
@@ -1,5 +1,9 @@
 package med.voll.api.infra.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,11 +18,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(securedEnabled = true)
 public class SecurityConfiguration {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfiguration.class);
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     public SecurityConfiguration(JwtAuthenticationFilter jwtAuthenticationFilter) {
@@ -48,7 +56,9 @@ public class SecurityConfiguration {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeRequests()
-                .requestMatchers(HttpMethod.POST, "/login").permitAll()
+                .requestMatchers(HttpMethod.POST, "/login", "/login/refresh").permitAll()
+                // Métricas para Prometheus: sin token, pero solo desde la misma máquina
+                .requestMatchers(HttpMethod.GET, "/actuator/prometheus").access("hasIpAddress('127.0.0.1') or hasIpAddress('::1')")
                 .requestMatchers(HttpMethod.GET, "/medicos/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_USER_MEDIC", "ROLE_USER_PATIENT")
                 .requestMatchers(HttpMethod.GET, "/pacientes/**").hasAnyAuthority("ROLE_USER_MEDIC", "ROLE_ADMIN")
                 .requestMatchers("/pacientes/**").hasAuthority("ROLE_USER_MEDIC")
@@ -66,7 +76,13 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // Configura BCrypt para manejar contraseñas
+    public PasswordEncoder passwordEncoder(@Value("${api.security.bcrypt.tiempo-objetivo:250ms}") Duration tiempoObjetivo,
+                                           @Value("${api.security.bcrypt.fuerza-minima:10}") int fuerzaMinima,
+                                           @Value("${api.security.bcrypt.fuerza-maxima:16}") int fuerzaMaxima,
+                                           MeterRegistry meterRegistry) {
+        // La fuerza se calibra al arrancar; los hashes más débiles se actualizan en el siguiente login exitoso
+        int fuerza = BCryptCalibrador.calibrar(tiempoObjetivo, fuerzaMinima, fuerzaMaxima);
+        log.info("BCrypt calibrado con fuerza {} para un objetivo de {} ms", fuerza, tiempoObjetivo.toMillis());
+        return new CodificadorClaveMedido(new BCryptPasswordEncoder(fuerza), meterRegistry); // BCrypt, con el tiempo de cada hash
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package med.voll.api.infra.security;
+
+/**
+ * El refresh token no existe, expiró, fue revocado o ya se había usado.
+ * El mensaje es el código de error que se devuelve al cliente.
+ */
+public class TokenRefrescoInvalidoException extends RuntimeException {
+
+    public TokenRefrescoInvalidoException(String code) {
+        super(code);
+    }
+}
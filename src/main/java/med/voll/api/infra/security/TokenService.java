@@ -2,36 +2,103 @@ package med.voll.api.infra.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import med.voll.api.domain.usuario.Usuario;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TokenService {
 
+    private static final String ISSUER = "voll med";
+
     private final String SECRET;
 
-    // Constructor para inyectar el valor de SECRET
-    public TokenService(@Value("${api.security.secret}") String secret) {
+    private final Duration expiracion;
+
+    // Conjunto inmutable de claves activas; se reemplaza completo al rotar
+    private volatile ClavesFirma claves;
+
+    // El parser es inmutable y thread-safe: se construye una sola vez y resuelve la clave por "kid"
+    private final JwtParser parser;
+
+    // Tiempo de firma y de verificación (token.verificacion, con resultado valido/invalido)
+    private final Timer tiempoFirma;
+    private final Timer tiempoVerificacionValida;
+    private final Timer tiempoVerificacionInvalida;
+
+    // Constructor para inyectar el valor de SECRET, las claves anteriores aún aceptadas y la vigencia del token
+    @Autowired
+    public TokenService(@Value("${api.security.secret}") String secret,
+                        @Value("${api.security.kid:v1}") String kid,
+                        @Value("${api.security.claves-anteriores:}") String clavesAnteriores,
+                        @Value("${api.security.token.expiracion-acceso:PT1H}") Duration expiracion,
+                        MeterRegistry meterRegistry) {
         this.SECRET = secret;
+        this.expiracion = expiracion;
+
+        this.tiempoFirma = Timer.builder("token.firma").register(meterRegistry);
+        this.tiempoVerificacionValida = Timer.builder("token.verificacion").tag("resultado", "valido").register(meterRegistry);
+        this.tiempoVerificacionInvalida = Timer.builder("token.verificacion").tag("resultado", "invalido").register(meterRegistry);
+
+        Map<String, String> secretos = new LinkedHashMap<>(parsearClaves(clavesAnteriores));
+        secretos.put(kid, secret);
+        this.claves = ClavesFirma.de(kid, secretos);
+
+        this.parser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return claves.resolver(header.getKeyId());
+                    }
+                })
+                .requireIssuer(ISSUER) // Verifica que el issuer sea correcto
+                .build();
     }
 
     public String getSecretKey() {
         return SECRET;
     }
 
+    /**
+     * Reemplaza en caliente el conjunto de claves de firma, sin reiniciar la aplicación
+     * (lo invoca {@link RecargaClavesFirma} cuando cambia {@code api.security.claves-archivo}).
+     * Los tokens nuevos se firman con {@code kidActivo}; los firmados con cualquier otra clave
+     * del mapa se siguen aceptando hasta que se retire de él.
+     *
+     * @param kidActivo      identificador de la clave con la que se firmarán los tokens nuevos
+     * @param secretosPorKid secretos aceptados, indexados por su "kid"
+     */
+    public void rotarClaves(String kidActivo, Map<String, String> secretosPorKid) {
+        this.claves = ClavesFirma.de(kidActivo, secretosPorKid);
+    }
+
     // Generar un token con expiración, incluyendo los roles del usuario
     public String gerarToken(Usuario usuario) {
-        long expirationTime = 3600000L; // 1 hora (en milisegundos)
+        long inicio = System.nanoTime();
+        try {
+            return firmar(usuario);
+        } finally {
+            tiempoFirma.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String firmar(Usuario usuario) {
         Date now = new Date();
-        Date expirationDate = new Date(now.getTime() + expirationTime);
+        Date expirationDate = new Date(now.getTime() + expiracion.toMillis());
 
         Map<String, Object> claims = new HashMap<>();
         claims.put("id", usuario.getId());
@@ -42,47 +109,107 @@ public class TokenService {
                 .findFirst() // Obtener solo el primer rol, ya que solo hay uno
                 .orElse("ROLE_USER")); // Si no hay rol, asignar ROLE_USER por defecto
 
-        SecretKey secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        ClavesFirma actuales = this.claves;
 
         return Jwts.builder()
-                .setIssuer("voll med")
-                .addClaims(claims)
-                .setSubject(usuario.getLogin()) // El subject es el login del usuario
-                .setIssuedAt(now)
-                .setExpiration(expirationDate)
-                .signWith(secretKey)
+                .header().keyId(actuales.kidActivo()).and()
+                .issuer(ISSUER)
+                .claims(claims)
+                .subject(usuario.getLogin()) // El subject es el login del usuario
+                .issuedAt(now)
+                .expiration(expirationDate)
+                .signWith(actuales.claveActiva())
                 .compact();
     }
 
 
-    // Validar el token (sin try-catch, lanzando excepciones)
-    public boolean validarToken(String token) {
-        SecretKey secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Verifica firma, issuer y expiración del token en una sola pasada y devuelve sus datos.
+     *
+     * @param token JWT sin el prefijo "Bearer "
+     * @return el usuario contenido en el token
+     * @throws JwtException si el token es inválido, está mal formado o ha expirado
+     */
+    public UsuarioAutenticado verificarToken(String token) {
+        long inicio = System.nanoTime();
+        boolean valido = false;
+        try {
+            UsuarioAutenticado usuario = leerToken(token);
+            valido = true;
+            return usuario;
+        } finally {
+            (valido ? tiempoVerificacionValida : tiempoVerificacionInvalida).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        Jws<Claims> jws = Jwts.parser()
-                .setSigningKey(secretKey)
-                .requireIssuer("voll med") // Verifica que el issuer sea correcto
-                .build()
-                .parseClaimsJws(token);  // Esto validará el token
+    private UsuarioAutenticado leerToken(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
 
         // Verificar si el "subject" (usuario) es nulo y lanzar una excepción si es el caso
-        if (jws.getBody().getSubject() == null) {
-            throw new RuntimeException("Verifier invalid");
+        if (claims.getSubject() == null) {
+            throw new MalformedJwtException("El token no contiene el subject");
         }
 
+        return new UsuarioAutenticado(
+                claims.getSubject(),
+                claims.get("id", Long.class),
+                claims.get("rol", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant()
+        );
+    }
+
+    // Validar el token (sin try-catch, lanzando excepciones)
+    public boolean validarToken(String token) {
+        verificarToken(token);
         return true;
     }
 
     // Obtener el "subject" del token (nombre de usuario)
     public String getUsernameFromToken(String token) {
-        SecretKey secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return verificarToken(token).login();
+    }
 
-        Jws<Claims> jws = Jwts.parser()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token);
+    // Formato: "kid1:secreto1,kid2:secreto2"
+    static Map<String, String> parsearClaves(String valor) {
+        Map<String, String> secretos = new LinkedHashMap<>();
+        if (valor == null || valor.isBlank()) {
+            return secretos;
+        }
+        for (String entrada : valor.split(",")) {
+            int separador = entrada.indexOf(':');
+            if (separador <= 0 || separador == entrada.length() - 1) {
+                throw new IllegalArgumentException("Formato inválido en las claves de firma, se esperaba kid:secreto");
+            }
+            secretos.put(entrada.substring(0, separador).trim(), entrada.substring(separador + 1).trim());
+        }
+        return secretos;
+    }
+
+    private record ClavesFirma(String kidActivo, SecretKey claveActiva, Map<String, SecretKey> porKid) {
+
+        static ClavesFirma de(String kidActivo, Map<String, String> secretosPorKid) {
+            Map<String, SecretKey> porKid = new HashMap<>();
+            secretosPorKid.forEach((kid, secreto) ->
+                    porKid.put(kid, Keys.hmacShaKeyFor(secreto.getBytes(StandardCharsets.UTF_8))));
 
-        // Retornar el 'subject' (login) que se guarda en el token
-        return jws.getBody().getSubject();
+            SecretKey activa = porKid.get(kidActivo);
+            if (activa == null) {
+                throw new IllegalArgumentException("No existe un secreto para el kid activo: " + kidActivo);
+            }
+            return new ClavesFirma(kidActivo, activa, Map.copyOf(porKid));
+        }
+
+        // Los tokens emitidos antes de usar "kid" se verifican con la clave activa
+        SecretKey resolver(String kid) {
+            if (kid == null) {
+                return claveActiva;
+            }
+            SecretKey clave = porKid.get(kid);
+            if (clave == null) {
+                throw new UnsupportedJwtException("Clave de firma desconocida: " + kid);
+            }
+            return clave;
+        }
     }
 }
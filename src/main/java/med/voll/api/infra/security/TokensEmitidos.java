@@ -0,0 +1,7 @@
+package med.voll.api.infra.security;
+
+public record TokensEmitidos(
+        String authenticationToken,
+        String refreshToken
+) {
+}
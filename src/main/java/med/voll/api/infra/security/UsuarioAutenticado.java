@@ -0,0 +1,22 @@
+package med.voll.api.infra.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Datos del usuario extraídos de un JWT ya verificado (firma, issuer y expiración).
+ * Como {@link Principal}, {@code Authentication.getName()} devuelve el login también en el modo sin estado.
+ */
+public record UsuarioAutenticado(
+        String login,
+        Long id,
+        String rol,
+        Instant emision,
+        Instant expiracion
+) implements Principal {
+
+    @Override
+    public String getName() {
+        return login;
+    }
+}
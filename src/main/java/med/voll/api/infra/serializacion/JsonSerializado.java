@@ -0,0 +1,19 @@
+package med.voll.api.infra.serializacion;
+
+/**
+ * Cuerpo de respuesta ya codificado como JSON en UTF-8, en uno o más fragmentos que se escriben uno tras
+ * otro. {@link JsonSerializadoHttpMessageConverter} los copia tal cual a la salida, sin pasar por Jackson
+ * ni unirlos antes en un arreglo nuevo.
+ */
+public record JsonSerializado(
+        byte[]... fragmentos
+) {
+
+    public long longitud() {
+        long longitud = 0;
+        for (byte[] fragmento : fragmentos) {
+            longitud += fragmento.length;
+        }
+        return longitud;
+    }
+}
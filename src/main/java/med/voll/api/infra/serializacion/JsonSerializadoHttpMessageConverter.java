@@ -0,0 +1,46 @@
+package med.voll.api.infra.serializacion;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Escribe los fragmentos de un JsonSerializado directamente en la respuesta, con su Content-Length
+public class JsonSerializadoHttpMessageConverter extends AbstractHttpMessageConverter<JsonSerializado> {
+
+    public JsonSerializadoHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonSerializado.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonSerializado readInternal(Class<? extends JsonSerializado> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Solo se usa para escribir respuestas", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(JsonSerializado json, MediaType contentType) {
+        return json.longitud();
+    }
+
+    @Override
+    protected void writeInternal(JsonSerializado json, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream salida = outputMessage.getBody();
+        for (byte[] fragmento : json.fragmentos()) {
+            salida.write(fragmento);
+        }
+    }
+}
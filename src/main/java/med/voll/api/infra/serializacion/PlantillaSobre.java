@@ -0,0 +1,51 @@
+package med.voll.api.infra.serializacion;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Sobre fijo de las respuestas de escritura, {@code {"code":...,"message":...,"<campo>":<contenido>}}.
+ * Las claves y los textos se codifican una sola vez, al crear la plantilla; en cada respuesta el
+ * contenido ya serializado se escribe entre los fragmentos fijos, sin copiarlo.
+ */
+public final class PlantillaSobre {
+
+    private static final byte[] CIERRE = {'}'};
+
+    private final byte[] inicio;
+
+    private PlantillaSobre(byte[] inicio) {
+        this.inicio = inicio;
+    }
+
+    public static PlantillaSobre de(String code, String message, String campo) {
+        ByteArrayOutputStream inicio = new ByteArrayOutputStream();
+        inicio.writeBytes(utf8("{\"code\":"));
+        inicio.writeBytes(cadena(code));
+        inicio.writeBytes(utf8(",\"message\":"));
+        inicio.writeBytes(cadena(message));
+        inicio.write(',');
+        inicio.writeBytes(cadena(campo));
+        inicio.write(':');
+        return new PlantillaSobre(inicio.toByteArray());
+    }
+
+    JsonSerializado envolver(byte[] contenido) {
+        return new JsonSerializado(inicio, contenido, CIERRE);
+    }
+
+    // Cadena JSON entre comillas, con los caracteres especiales escapados
+    private static byte[] cadena(String valor) {
+        ByteArrayOutputStream cadena = new ByteArrayOutputStream();
+        cadena.write('"');
+        cadena.writeBytes(JsonStringEncoder.getInstance().quoteAsUTF8(valor));
+        cadena.write('"');
+        return cadena.toByteArray();
+    }
+
+    private static byte[] utf8(String fragmento) {
+        return fragmento.getBytes(StandardCharsets.UTF_8);
+    }
+}
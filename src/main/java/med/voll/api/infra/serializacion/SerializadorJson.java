@@ -0,0 +1,57 @@
+package med.voll.api.infra.serializacion;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Serializa los cuerpos de respuesta. {@link #jsonDeCache} además guarda los bytes de cada objeto mientras ese
+ * mismo objeto siga vivo; se usa solo con los DTO que devuelven las caches de servicio (detalle y páginas del
+ * directorio), que son la misma instancia en cada acierto. El resto se serializa sin guardar nada: cada
+ * respuesta es una instancia nueva que solo ocuparía lugar y desplazaría a las que sí se repiten.
+ * <p>
+ * Las claves se comparan por identidad y son referencias débiles: los bytes desaparecen cuando la cache de
+ * servicio desaloja o reemplaza la instancia. Un registro modificado es siempre una instancia nueva, por lo
+ * que nunca se sirven bytes desactualizados.
+ */
+@Component
+public class SerializadorJson {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, byte[]> serializados;
+
+    public SerializadorJson(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${api.serializacion.maximo:20000}") long maximo) {
+        this.objectMapper = objectMapper;
+        this.serializados = Caffeine.newBuilder().weakKeys().maximumSize(maximo).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, serializados, "serializacion");
+    }
+
+    public JsonSerializado json(Object valor) {
+        return new JsonSerializado(bytes(valor));
+    }
+
+    // Para instancias que vienen de una cache de servicio: la misma instancia se serializa una sola vez
+    public JsonSerializado jsonDeCache(Object valor) {
+        return new JsonSerializado(serializados.get(valor, this::bytes));
+    }
+
+    public JsonSerializado sobre(PlantillaSobre plantilla, Object contenido) {
+        return plantilla.envolver(bytes(contenido));
+    }
+
+    private byte[] bytes(Object valor) {
+        try {
+            return objectMapper.writeValueAsBytes(valor);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package med.voll.api.infra.versionado;
+
+/**
+ * ETag derivado de la columna {@code version} de la entidad: {@code "3"}. Cambia con cada UPDATE, así que
+ * comparar versiones equivale a comparar representaciones sin tener que cargar ni serializar el registro.
+ */
+public final class EtagVersion {
+
+    private EtagVersion() {
+    }
+
+    public static String de(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Comparación débil para {@code If-None-Match}: acepta {@code *}, listas separadas por comas y el prefijo {@code W/}.
+     */
+    public static boolean coincide(String cabecera, Long version) {
+        if (cabecera == null || version == null) {
+            return false;
+        }
+        String etag = de(version);
+        for (String candidato : cabecera.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || valor.equals(etag) || valor.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Versión exigida por {@code If-Match}, o null si la cabecera no viene o es {@code *}.
+     * Una cabecera que no corresponde a ninguna versión nunca coincide.
+     */
+    public static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            try {
+                return Long.parseLong(valor.substring(1, valor.length() - 1));
+            } catch (NumberFormatException e) {
+                // Cae al valor imposible de abajo
+            }
+        }
+        return -1L;
+    }
+
+    // Lanza la excepción que el global traduce a 412 si la versión actual no es la que el cliente leyó
+    public static void verificar(Long esperada, Long actual) {
+        if (esperada != null && !esperada.equals(actual)) {
+            throw new VersionNoCoincideException(esperada, actual);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package med.voll.api.infra.versionado;
+
+public class VersionNoCoincideException extends RuntimeException {
+
+    public VersionNoCoincideException(Long esperada, Long actual) {
+        super("Versión esperada " + esperada + ", versión actual " + actual);
+    }
+}
@@ -0,0 +1,3 @@
+-- Versión para el bloqueo optimista y los ETag de /medicos/{id} y /pacientes/{id}
+ALTER TABLE medicos ADD version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE pacientes ADD version BIGINT NOT NULL DEFAULT 0;
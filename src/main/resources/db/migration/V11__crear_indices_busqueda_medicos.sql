@@ -0,0 +1,4 @@
+-- Soportan la búsqueda de activos por especialidad o por ciudad, ordenada por (nombre, id) y opcionalmente por prefijo
+-- del nombre. Sin esos filtros (solo prefijo) se usa idx_medicos_activo_nombre_id de V8
+CREATE INDEX idx_medicos_activo_especialidad_nombre_id ON medicos (activo, especialidad, nombre, id);
+CREATE INDEX idx_medicos_activo_ciudad_nombre_id ON medicos (activo, ciudad, nombre, id);
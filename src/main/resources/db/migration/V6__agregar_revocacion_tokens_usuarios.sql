@@ -0,0 +1,2 @@
+-- Los JWT emitidos antes de esta fecha dejan de ser aceptados para el usuario
+ALTER TABLE usuarios ADD tokens_validos_desde DATETIME(6) NULL;
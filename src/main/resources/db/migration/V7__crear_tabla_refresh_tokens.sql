@@ -0,0 +1,16 @@
+CREATE TABLE refresh_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    familia VARCHAR(36) NOT NULL,
+    creado_en DATETIME(6) NOT NULL,
+    expira_en DATETIME(6) NOT NULL,
+    usado BOOLEAN NOT NULL,
+    revocado BOOLEAN NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+CREATE INDEX idx_refresh_tokens_familia ON refresh_tokens (familia);
+CREATE INDEX idx_refresh_tokens_expira_en ON refresh_tokens (expira_en);
@@ -0,0 +1,3 @@
+-- Soportan el listado de activos ordenado por (nombre, id), tanto por páginas como por cursor
+CREATE INDEX idx_medicos_activo_nombre_id ON medicos (activo, nombre, id);
+CREATE INDEX idx_pacientes_activo_nombre_id ON pacientes (activo, nombre, id);
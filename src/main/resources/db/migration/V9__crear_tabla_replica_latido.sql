@@ -0,0 +1,7 @@
+-- Latido escrito en el primario y leído en la réplica para medir el retraso de replicación
+CREATE TABLE replica_latido (
+    id TINYINT NOT NULL PRIMARY KEY,
+    instante_ms BIGINT NOT NULL
+);
+
+INSERT INTO replica_latido (id, instante_ms) VALUES (1, 0);
@@ -0,0 +1,138 @@
+package med.voll.api.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import med.voll.api.ApiApplication;
+import med.voll.api.domain.medico.*;
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda de médicos con filtros sobre un directorio grande: las consultas JPQL precalculadas de
+ * {@link MedicoRepository#buscar} (una por combinación de filtros, con el plan ya en cache) frente a una consulta
+ * Criteria armada en cada llamada, que Hibernate vuelve a interpretar y traducir a SQL cada vez.
+ * <p>
+ * Usa la base H2 en memoria de las pruebas con los índices de V8 y V11, sembrada por JDBC en lotes
+ * (cada combinación de filtros corre en su propio fork y siembra de nuevo).
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.benchmarks=BusquedaMedicosBenchmark
+ * mvn -Pbenchmark test -Djmh.benchmarks=BusquedaMedicosBenchmark -Djmh.opciones="-p medicos=100000"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class BusquedaMedicosBenchmark {
+
+    private static final int TAMANO_BLOQUE = 20;
+    private static final int TAMANO_LOTE = 5_000;
+
+    private static final String[] APELLIDOS = {"Alvarez", "Benitez", "Castro", "Diaz", "Fernandez", "Garcia", "Gomez",
+            "Gonzalez", "Herrera", "Lopez", "Martinez", "Morales", "Ortiz", "Perez", "Ramirez", "Rodriguez", "Romero",
+            "Sanchez", "Torres", "Vargas"};
+    private static final int CIUDADES = 50;
+
+    @Param("1000000")
+    public int medicos;
+
+    @Param({"especialidad", "ciudad", "nombre", "especialidad+ciudad+nombre"})
+    public String filtros;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private MedicoRepository medicoRepository;
+    private FiltrosBusquedaMedico filtrosBusqueda;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(ApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        entityManager = context.getBean(EntityManager.class);
+        medicoRepository = context.getBean(MedicoRepository.class);
+        sembrar(context.getBean(JdbcTemplate.class));
+
+        filtrosBusqueda = new FiltrosBusquedaMedico(
+                filtros.contains("especialidad") ? Especialidad.GINECOLOGIA : null,
+                filtros.contains("ciudad") ? "Ciudad 7" : null,
+                filtros.contains("nombre") ? "Go" : null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DatosListadoMedico> plantillas() {
+        return medicoRepository.buscar(filtrosBusqueda, null, TAMANO_BLOQUE + 1);
+    }
+
+    @Benchmark
+    public List<DatosListadoMedico> criteria() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DatosListadoMedico> consulta = cb.createQuery(DatosListadoMedico.class);
+        Root<Medico> m = consulta.from(Medico.class);
+
+        List<Predicate> condiciones = new ArrayList<>();
+        condiciones.add(cb.isTrue(m.get("activo")));
+        if (filtrosBusqueda.especialidad() != null) {
+            condiciones.add(cb.equal(m.get("especialidad"), filtrosBusqueda.especialidad()));
+        }
+        if (filtrosBusqueda.ciudad() != null) {
+            condiciones.add(cb.equal(m.get("direccion").get("ciudad"), filtrosBusqueda.ciudad()));
+        }
+        if (filtrosBusqueda.prefijoNombre() != null) {
+            condiciones.add(cb.like(m.get("nombre"), filtrosBusqueda.prefijoNombre() + "%"));
+        }
+
+        consulta.select(cb.construct(DatosListadoMedico.class,
+                        m.get("id"), m.get("nombre"), m.get("especialidad"), m.get("documento"), m.get("email")))
+                .where(condiciones.toArray(Predicate[]::new))
+                .orderBy(cb.asc(m.get("nombre")), cb.asc(m.get("id")));
+
+        return entityManager.createQuery(consulta)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 100)
+                .setMaxResults(TAMANO_BLOQUE + 1)
+                .getResultList();
+    }
+
+    // Apellidos, ciudades y especialidades repartidos para que cada filtro y sus combinaciones tengan resultados
+    private void sembrar(JdbcTemplate jdbcTemplate) {
+        Especialidad[] especialidades = Especialidad.values();
+        List<Object[]> lote = new ArrayList<>(TAMANO_LOTE);
+        for (int i = 0; i < medicos; i++) {
+            lote.add(new Object[]{
+                    APELLIDOS[i % APELLIDOS.length] + " " + i, "bench" + i + "@voll.med", String.valueOf(20_000_000L + i),
+                    especialidades[(i / APELLIDOS.length) % especialidades.length].toValue(), "Ciudad " + (i % CIUDADES)});
+            if (lote.size() == TAMANO_LOTE) {
+                insertar(jdbcTemplate, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            insertar(jdbcTemplate, lote);
+        }
+        jdbcTemplate.execute("ANALYZE TABLE medicos");
+    }
+
+    private static void insertar(JdbcTemplate jdbcTemplate, List<Object[]> lote) {
+        jdbcTemplate.batchUpdate("INSERT INTO medicos (nombre, telefono, email, documento, especialidad, calle, distrito, ciudad, numero, complemento, activo) "
+                + "VALUES (?, '3001234567', ?, ?, ?, 'calle', 'distrito', ?, '1', 'complemento', TRUE)", lote);
+    }
+}
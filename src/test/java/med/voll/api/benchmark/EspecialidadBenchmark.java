@@ -0,0 +1,51 @@
+package med.voll.api.benchmark;
+
+import med.voll.api.domain.medico.Especialidad;
+import med.voll.api.domain.medico.EspecialidadConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de la especialidad en cada fila leída ({@link EspecialidadConverter}) y en cada parámetro
+ * {@code ?especialidad=}. {@code pediatria} es la última constante del enum, el peor caso de la búsqueda lineal;
+ * {@code CARDIOLOGIA} llega en mayúsculas.
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.benchmarks=EspecialidadBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EspecialidadBenchmark {
+
+    @Param({"ortopedia", "pediatria", "CARDIOLOGIA"})
+    private String valor;
+
+    private final EspecialidadConverter converter = new EspecialidadConverter();
+    private Especialidad especialidad;
+
+    @Setup
+    public void setup() {
+        especialidad = Especialidad.fromValue(valor);
+    }
+
+    @Benchmark
+    public Especialidad fromValue() {
+        return Especialidad.fromValue(valor);
+    }
+
+    @Benchmark
+    public Especialidad desdeColumna() {
+        return converter.convertToEntityAttribute(valor);
+    }
+
+    @Benchmark
+    public String haciaColumna() {
+        return converter.convertToDatabaseColumn(especialidad);
+    }
+}
@@ -0,0 +1,98 @@
+package med.voll.api.benchmark;
+
+import com.zaxxer.hikari.HikariDataSource;
+import med.voll.api.infra.datasource.DataSourceAcotado;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo en atender un lote de {@code solicitudes} simultáneas con hilos de plataforma (pool fijo del tamaño por
+ * defecto de Tomcat, 200) frente a un hilo virtual por solicitud, con y sin {@link DataSourceAcotado}.
+ * <p>
+ * Cada solicitud simula lo que hacen los endpoints: espera bloqueada fuera de la base de datos (red, otros servicios)
+ * y una consulta corta con una conexión de un pool Hikari de 10, sobre H2 en memoria.
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.benchmarks=HilosVirtualesBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HilosVirtualesBenchmark {
+
+    private static final int HILOS_TOMCAT = 200;
+    private static final int TAMANO_POOL = 10;
+    private static final long ESPERA_FUERA_DE_BD_MS = 20;
+
+    @Param({"plataforma", "virtual"})
+    public String hilos;
+
+    @Param({"false", "true"})
+    public boolean acotado;
+
+    @Param({"10000"})
+    public int solicitudes;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:hilos;DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(TAMANO_POOL);
+        pool.setConnectionTimeout(30_000);
+        dataSource = acotado ? new DataSourceAcotado(pool, TAMANO_POOL, Duration.ofSeconds(30)) : pool;
+
+        executor = hilos.equals("virtual")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(HILOS_TOMCAT);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public long lote() throws Exception {
+        List<Future<Long>> pendientes = new ArrayList<>(solicitudes);
+        for (int i = 0; i < solicitudes; i++) {
+            pendientes.add(executor.submit(this::solicitud));
+        }
+        long total = 0;
+        for (Future<Long> pendiente : pendientes) {
+            total += pendiente.get();
+        }
+        return total;
+    }
+
+    private long solicitud() throws SQLException, InterruptedException {
+        Thread.sleep(ESPERA_FUERA_DE_BD_MS);
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement consulta = conexion.prepareStatement("SELECT 1");
+             ResultSet resultado = consulta.executeQuery()) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+}
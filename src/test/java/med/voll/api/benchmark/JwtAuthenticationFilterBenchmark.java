@@ -0,0 +1,75 @@
+package med.voll.api.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import med.voll.api.domain.usuario.RoleEnum;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.infra.errors.ContadorErrores;
+import med.voll.api.infra.security.JwtAuthenticationFilter;
+import med.voll.api.infra.security.RevocacionTokenService;
+import med.voll.api.infra.security.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo del filtro JWT por solicitud con un token válido, uno expirado y uno mal formado. Con
+ * {@code principalSinEstado} la autenticación se arma con los claims, sin consultar la base de datos;
+ * los errores se responden con los bytes ya codificados de {@code CodigoError}.
+ * <p>
+ * La solicitud y la respuesta simuladas se crean en cada operación y forman parte de los bytes asignados.
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.benchmarks=JwtAuthenticationFilterBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "secreto-de-benchmark-con-al-menos-256-bits";
+    private static final FilterChain CADENA = (request, response) -> { };
+
+    @Param({"valido", "expirado", "malformado"})
+    private String token;
+
+    private JwtAuthenticationFilter filtro;
+    private String cabecera;
+
+    @Setup
+    public void setup() {
+        Usuario usuario = new Usuario(1L, "benchmark", "clave", RoleEnum.ROLE_ADMIN, null);
+        TokenService tokenService = new TokenService(SECRET, "v1", "", Duration.ofHours(1), new SimpleMeterRegistry());
+        filtro = new JwtAuthenticationFilter(tokenService, null, new RevocacionTokenService(null),
+                new ContadorErrores(new SimpleMeterRegistry()), true);
+
+        cabecera = "Bearer " + switch (token) {
+            case "valido" -> tokenService.gerarToken(usuario);
+            case "expirado" -> new TokenService(SECRET, "v1", "", Duration.ofHours(-1), new SimpleMeterRegistry()).gerarToken(usuario);
+            default -> "no-es.un.jwt";
+        };
+    }
+
+    @Benchmark
+    public int filtrar() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/medicos");
+        request.addHeader("Authorization", cabecera);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filtro.doFilter(request, response, CADENA);
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package med.voll.api.benchmark;
+
+import jakarta.persistence.EntityManager;
+import med.voll.api.ApiApplication;
+import med.voll.api.domain.direccion.DatosDireccion;
+import med.voll.api.domain.medico.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Asignación de memoria por página del listado de médicos: cargar entidades y mapearlas a
+ * {@link DatosListadoMedico} frente a proyectar directamente al DTO en la consulta.
+ * Usa la base H2 en memoria de las pruebas; comparar {@code gc.alloc.rate.norm} (bytes por operación).
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.benchmarks=ListadoProyeccionBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListadoProyeccionBenchmark {
+
+    private static final int TAMANO_PAGINA = 20;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(ApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        entityManager = context.getBean(EntityManager.class);
+
+        MedicoRepository medicoRepository = context.getBean(MedicoRepository.class);
+        medicoRepository.saveAll(IntStream.range(0, 1_000)
+                .mapToObj(i -> new Medico(new DatosRegistroMedico(
+                        "Medico " + i, "3001234567", "bench" + i + "@voll.med", String.valueOf(20000000L + i),
+                        Especialidad.values()[i % Especialidad.values().length],
+                        new DatosDireccion("calle", "distrito", "ciudad", "1", "complemento"))))
+                .toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DatosListadoMedico> entidades() {
+        return entityManager.createQuery("select m from Medico m where m.activo = true order by m.nombre", Medico.class)
+                .setMaxResults(TAMANO_PAGINA)
+                .getResultList()
+                .stream()
+                .map(DatosListadoMedico::new)
+                .toList();
+    }
+
+    @Benchmark
+    public List<DatosListadoMedico> proyeccion() {
+        return entityManager.createQuery("select new med.voll.api.domain.medico.DatosListadoMedico(m.id, m.nombre, m.especialidad, m.documento, m.email) "
+                        + "from Medico m where m.activo = true order by m.nombre", DatosListadoMedico.class)
+                .setMaxResults(TAMANO_PAGINA)
+                .getResultList();
+    }
+}
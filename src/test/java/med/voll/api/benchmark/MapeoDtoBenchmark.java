@@ -0,0 +1,52 @@
+package med.voll.api.benchmark;
+
+import med.voll.api.domain.direccion.DatosDireccion;
+import med.voll.api.domain.medico.DatosListadoMedico;
+import med.voll.api.domain.medico.DatosRegistroMedico;
+import med.voll.api.domain.medico.Especialidad;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.paciente.DatosRegistroPaciente;
+import med.voll.api.domain.paciente.DatosRespuestaPaciente;
+import med.voll.api.domain.paciente.Paciente;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo de entidad a DTO por fila: {@link DatosListadoMedico} (listado cargado como entidades) y
+ * {@link DatosRespuestaPaciente}, que además copia la dirección embebida.
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.benchmarks=MapeoDtoBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoDtoBenchmark {
+
+    private Medico medico;
+    private Paciente paciente;
+
+    @Setup
+    public void setup() {
+        DatosDireccion direccion = new DatosDireccion("calle", "distrito", "ciudad", "1", "complemento");
+        medico = new Medico(new DatosRegistroMedico("Medico", "3001234567", "medico@voll.med", "123456",
+                Especialidad.PEDIATRIA, direccion));
+        paciente = new Paciente(new DatosRegistroPaciente("Paciente", "paciente@voll.med", "12345678",
+                "3001234567", direccion));
+    }
+
+    @Benchmark
+    public DatosListadoMedico listadoMedico() {
+        return new DatosListadoMedico(medico);
+    }
+
+    @Benchmark
+    public DatosRespuestaPaciente respuestaPaciente() {
+        return new DatosRespuestaPaciente(paciente);
+    }
+}
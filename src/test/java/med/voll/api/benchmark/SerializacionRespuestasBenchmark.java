@@ -0,0 +1,100 @@
+package med.voll.api.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.direccion.DatosDireccion;
+import med.voll.api.domain.medico.*;
+import med.voll.api.infra.paginacion.CursorListado;
+import med.voll.api.infra.paginacion.DatosPaginaCursor;
+import med.voll.api.infra.serializacion.JsonSerializado;
+import med.voll.api.infra.serializacion.PlantillaSobre;
+import med.voll.api.infra.serializacion.SerializadorJson;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialización de los sobres de respuesta: un bloque del listado por cursor (20 médicos) y el sobre
+ * {@code {"code","message","medico"}} del registro.
+ * <ul>
+ *     <li>{@code ...Jackson}: el objeto completo con el ObjectMapper en cada solicitud, como antes de la cache,</li>
+ *     <li>{@code ...Serializador}: {@link SerializadorJson} con un DTO nuevo (en el bloque, fallo de cache: serializa
+ *     y guarda; en el sobre, solo el contenido se serializa y se escribe entre los fragmentos fijos),</li>
+ *     <li>{@code bloqueCursorCacheado}: la misma instancia que devuelve la cache de servicio en cada acierto.</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.benchmarks=SerializacionRespuestasBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacionRespuestasBenchmark {
+
+    private static final int TAMANO_BLOQUE = 20;
+    private static final PlantillaSobre SOBRE_REGISTRO = PlantillaSobre.de("CREATED", "Médico registrado exitosamente.", "medico");
+
+    private ObjectMapper objectMapper;
+    private SerializadorJson serializadorJson;
+    private List<DatosListadoMedico> filas;
+    private DatosPaginaCursor<DatosListadoMedico> bloque;
+    private Medico medico;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        serializadorJson = new SerializadorJson(objectMapper, new SimpleMeterRegistry(), 20_000);
+
+        filas = IntStream.rangeClosed(1, TAMANO_BLOQUE + 1)
+                .mapToObj(i -> new DatosListadoMedico((long) i, "Medico " + i, Especialidad.values()[i % 4],
+                        String.valueOf(20000000L + i), "bench" + i + "@voll.med"))
+                .toList();
+        bloque = bloque();
+
+        medico = new Medico(new DatosRegistroMedico("Medico", "3001234567", "medico@voll.med", "123456",
+                Especialidad.PEDIATRIA, new DatosDireccion("calle", "distrito", "ciudad", "1", "complemento")));
+    }
+
+    @Benchmark
+    public byte[] bloqueCursorJackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bloque());
+    }
+
+    @Benchmark
+    public JsonSerializado bloqueCursorSerializador() {
+        return serializadorJson.jsonDeCache(bloque());
+    }
+
+    @Benchmark
+    public JsonSerializado bloqueCursorCacheado() {
+        return serializadorJson.jsonDeCache(bloque);
+    }
+
+    @Benchmark
+    public byte[] sobreRegistroJackson() throws JsonProcessingException {
+        Map<String, Object> sobre = new LinkedHashMap<>();
+        sobre.put("code", "CREATED");
+        sobre.put("message", "Médico registrado exitosamente.");
+        sobre.put("medico", new DatosRespuestaMedico(medico));
+        return objectMapper.writeValueAsBytes(sobre);
+    }
+
+    @Benchmark
+    public JsonSerializado sobreRegistroSerializador() {
+        return serializadorJson.sobre(SOBRE_REGISTRO, new DatosRespuestaMedico(medico));
+    }
+
+    private DatosPaginaCursor<DatosListadoMedico> bloque() {
+        return DatosPaginaCursor.de(filas, TAMANO_BLOQUE, fila -> new CursorListado(fila.nombre(), fila.id()), null);
+    }
+}
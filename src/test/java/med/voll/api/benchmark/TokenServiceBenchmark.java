@@ -0,0 +1,83 @@
+package med.voll.api.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.usuario.RoleEnum;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.infra.security.TokenService;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens por segundo al firmar y verificar, comparando la implementación anterior
+ * (clave y parser reconstruidos en cada llamada) con el {@link TokenService} actual.
+ *
+ * <pre>
+ * mvn -Pbenchmark test -Djmh.benchmarks=TokenServiceBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "secreto-de-benchmark-con-al-menos-256-bits";
+
+    private TokenService tokenService;
+    private Usuario usuario;
+    private String token;
+
+    @Setup
+    public void setup() {
+        tokenService = new TokenService(SECRET, "v1", "", Duration.ofHours(1), new SimpleMeterRegistry());
+        usuario = new Usuario(1L, "benchmark", "clave", RoleEnum.ROLE_ADMIN, null);
+        token = tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String firmarAntes() {
+        SecretKey secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Date now = new Date();
+        return Jwts.builder()
+                .issuer("voll med")
+                .claims(Map.of("id", usuario.getId(), "rol", usuario.getRol().name()))
+                .subject(usuario.getLogin())
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + 3600000L))
+                .signWith(secretKey)
+                .compact();
+    }
+
+    @Benchmark
+    public String firmarDespues() {
+        return tokenService.gerarToken(usuario);
+    }
+
+    @Benchmark
+    public String verificarAntes() {
+        SecretKey secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Jws<Claims> jws = Jwts.parser()
+                .verifyWith(secretKey)
+                .requireIssuer("voll med")
+                .build()
+                .parseSignedClaims(token);
+        return jws.getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String verificarDespues() {
+        return tokenService.getUsernameFromToken(token);
+    }
+}
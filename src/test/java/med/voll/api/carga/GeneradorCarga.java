@@ -0,0 +1,166 @@
+package med.voll.api.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.carga.SembradorDatos.DatosSembrados;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lanza la mezcla de operaciones a tasa fija (carga abierta): la solicitud {@code i} sale en
+ * {@code inicio + i / tasa}, sin esperar a que respondan las anteriores, y cada una corre en su propio hilo virtual.
+ * Así una aplicación lenta recibe la misma carga que una rápida, como ocurre con clientes reales.
+ */
+class GeneradorCarga {
+
+    private static final Duration TIEMPO_MAXIMO = Duration.ofSeconds(30);
+    private static final int PAGINAS_LISTADO = 10;
+
+    private final URI base;
+    private final ParametrosCarga parametros;
+    private final DatosSembrados datos;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Cada operación aparece tantas veces como su peso: elegir una posición al azar respeta la mezcla
+    private final OperacionCarga[] ruleta;
+    private final AtomicLong registrados = new AtomicLong();
+    private List<String> tokens = List.of();
+
+    GeneradorCarga(URI base, ParametrosCarga parametros, DatosSembrados datos) {
+        this.base = base;
+        this.parametros = parametros;
+        this.datos = datos;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<OperacionCarga> posiciones = new ArrayList<>();
+        parametros.mezcla().forEach((operacion, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                posiciones.add(operacion);
+            }
+        });
+        this.ruleta = posiciones.toArray(OperacionCarga[]::new);
+    }
+
+    // Tokens de las sesiones que usan las operaciones autenticadas, obtenidos uno a uno antes de medir
+    void iniciarSesiones() throws IOException, InterruptedException {
+        List<String> obtenidos = new ArrayList<>(parametros.sesiones());
+        for (int i = 0; i < parametros.sesiones(); i++) {
+            HttpResponse<String> respuesta = http.send(login(i % datos.usuarios()), HttpResponse.BodyHandlers.ofString());
+            if (respuesta.statusCode() != 200) {
+                throw new IllegalStateException("No se pudo iniciar la sesión " + i + ": " + respuesta.statusCode() + " " + respuesta.body());
+            }
+            obtenidos.add(objectMapper.readTree(respuesta.body()).get("authenticationToken").asText());
+        }
+        tokens = List.copyOf(obtenidos);
+    }
+
+    InformeCarga ejecutar(Duration duracion) {
+        InformeCarga informe = new InformeCarga(parametros.mezcla().keySet());
+        Semaphore enVuelo = new Semaphore(parametros.maximoEnVuelo());
+        long intervalo = 1_000_000_000L / parametros.tasa();
+        long inicio = System.nanoTime();
+        long fin = inicio + duracion.toNanos();
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; inicio + i * intervalo < fin; i++) {
+                long programado = inicio + i * intervalo;
+                LockSupport.parkNanos(programado - System.nanoTime());
+                if (!enVuelo.tryAcquire()) {
+                    informe.registrarDescartada();
+                    continue;
+                }
+                OperacionCarga operacion = ruleta[ThreadLocalRandom.current().nextInt(ruleta.length)];
+                hilos.execute(() -> {
+                    try {
+                        enviar(operacion, programado, informe);
+                    } finally {
+                        enVuelo.release();
+                    }
+                });
+            }
+        } // close() espera a que terminen las solicitudes en vuelo
+        return informe;
+    }
+
+    private void enviar(OperacionCarga operacion, long programado, InformeCarga informe) {
+        try {
+            HttpResponse<Void> respuesta = http.send(solicitud(operacion), HttpResponse.BodyHandlers.discarding());
+            informe.registrar(operacion, System.nanoTime() - programado, respuesta.statusCode());
+        } catch (IOException e) {
+            informe.registrarFallo(operacion, System.nanoTime() - programado);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest solicitud(OperacionCarga operacion) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        return switch (operacion) {
+            case LOGIN -> login(azar.nextInt(datos.usuarios()));
+            case LISTAR -> autenticada("/medicos?pagina=" + azar.nextInt(PAGINAS_LISTADO) + "&tamano=20").GET().build();
+            case DETALLE -> autenticada("/medicos/" + medicoAlAzar(azar)).GET().build();
+            case REGISTRAR -> autenticada("/medicos").POST(json(registro(registrados.incrementAndGet()))).build();
+            case ACTUALIZAR -> autenticada("/medicos")
+                    .PUT(json(Map.of("id", medicoAlAzar(azar), "nombre", "Medico actualizado " + azar.nextInt(1_000))))
+                    .build();
+            case DESACTIVAR -> autenticada("/medicos/" + medicoAlAzar(azar)).DELETE().build();
+        };
+    }
+
+    private HttpRequest login(int usuario) {
+        return HttpRequest.newBuilder(base.resolve("/login"))
+                .timeout(TIEMPO_MAXIMO)
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("login", DatosSembrados.login(usuario), "clave", SembradorDatos.CLAVE)))
+                .build();
+    }
+
+    private HttpRequest.Builder autenticada(String ruta) {
+        String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+        return HttpRequest.newBuilder(base.resolve(ruta))
+                .timeout(TIEMPO_MAXIMO)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json");
+    }
+
+    private long medicoAlAzar(ThreadLocalRandom azar) {
+        return azar.nextLong(datos.primerMedico(), datos.ultimoMedico() + 1);
+    }
+
+    // Email y documento (11 dígitos) distintos de los sembrados y de los demás registros
+    private static Map<String, Object> registro(long n) {
+        return Map.of(
+                "nombre", "Medico nuevo " + n,
+                "telefono", "3001234567",
+                "email", "nuevo" + n + "@carga.voll.med",
+                "documento", String.valueOf(90_000_000_000L + n),
+                "especialidad", "cardiologia",
+                "direccion", Map.of("calle", "calle", "distrito", "distrito", "ciudad", "ciudad", "numero", "1", "complemento", "complemento")
+        );
+    }
+
+    private HttpRequest.BodyPublisher json(Object cuerpo) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(cuerpo));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
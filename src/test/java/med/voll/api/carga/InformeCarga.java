@@ -0,0 +1,103 @@
+package med.voll.api.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y resultados por operación. La latencia se mide desde el instante en que la solicitud debía
+ * salir según la tasa, no desde que salió: si la aplicación se atasca, la espera acumulada aparece en los
+ * percentiles en lugar de ocultarse (omisión coordinada).
+ * <p>
+ * Además del resumen, cada histograma se guarda en {@code <operacion>.hgrm}, en el formato que leen
+ * HdrHistogram Plotter y las herramientas de comparación de HdrHistogram.
+ */
+class InformeCarga {
+
+    private static final long LATENCIA_MAXIMA = TimeUnit.MINUTES.toNanos(1);
+    private static final double NANOS_POR_MILI = 1_000_000.0;
+
+    private final Map<OperacionCarga, Resultados> resultados = new EnumMap<>(OperacionCarga.class);
+    private final LongAdder descartadas = new LongAdder();
+
+    InformeCarga(Iterable<OperacionCarga> operaciones) {
+        operaciones.forEach(operacion -> resultados.put(operacion, new Resultados()));
+    }
+
+    void registrar(OperacionCarga operacion, long latenciaNanos, int status) {
+        Resultados r = resultados.get(operacion);
+        r.latencias.recordValue(Math.min(latenciaNanos, LATENCIA_MAXIMA));
+        if (status == 429 || status == 503) {
+            r.rechazadas.increment();
+        } else if (status < 200 || status >= 400) {
+            r.fallidas.increment();
+        }
+    }
+
+    // Sin respuesta HTTP (conexión rechazada, tiempo agotado)
+    void registrarFallo(OperacionCarga operacion, long latenciaNanos) {
+        registrar(operacion, latenciaNanos, 0);
+    }
+
+    // No se envió porque ya había demasiadas en vuelo
+    void registrarDescartada() {
+        descartadas.increment();
+    }
+
+    void imprimir(PrintStream salida, Duration duracion) {
+        double segundos = duracion.toNanos() / 1e9;
+        Histogram total = new Histogram(LATENCIA_MAXIMA, 3);
+        long totalSolicitudes = 0;
+
+        salida.printf("%n%-11s %11s %9s %8s %9s %8s %8s %8s %8s %9s%n",
+                "operacion", "solicitudes", "sol/s", "errores", "429/503", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<OperacionCarga, Resultados> entrada : resultados.entrySet()) {
+            Resultados r = entrada.getValue();
+            Histogram latencias = r.latencias.copy();
+            total.add(latencias);
+            totalSolicitudes += latencias.getTotalCount();
+            imprimirFila(salida, entrada.getKey().nombre(), latencias, segundos, r.fallidas.sum(), r.rechazadas.sum());
+        }
+        imprimirFila(salida, "total", total, segundos,
+                resultados.values().stream().mapToLong(r -> r.fallidas.sum()).sum(),
+                resultados.values().stream().mapToLong(r -> r.rechazadas.sum()).sum());
+        salida.printf("%nSolicitudes: %d en %.1f s (%.1f sol/s), descartadas por exceso en vuelo: %d%n",
+                totalSolicitudes, segundos, totalSolicitudes / segundos, descartadas.sum());
+    }
+
+    void guardarHistogramas(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        for (Map.Entry<OperacionCarga, Resultados> entrada : resultados.entrySet()) {
+            try (PrintStream archivo = new PrintStream(Files.newOutputStream(directorio.resolve(entrada.getKey().nombre() + ".hgrm")))) {
+                entrada.getValue().latencias.outputPercentileDistribution(archivo, NANOS_POR_MILI);
+            }
+        }
+    }
+
+    private static void imprimirFila(PrintStream salida, String nombre, Histogram latencias, double segundos,
+                                     long fallidas, long rechazadas) {
+        salida.printf("%-11s %11d %9.1f %8d %9d %8.2f %8.2f %8.2f %8.2f %9.2f%n",
+                nombre, latencias.getTotalCount(), latencias.getTotalCount() / segundos, fallidas, rechazadas,
+                milis(latencias, 50), milis(latencias, 90), milis(latencias, 99), milis(latencias, 99.9),
+                latencias.getMaxValue() / NANOS_POR_MILI);
+    }
+
+    private static double milis(Histogram latencias, double percentil) {
+        return latencias.getValueAtPercentile(percentil) / NANOS_POR_MILI;
+    }
+
+    private static final class Resultados {
+        private final Histogram latencias = new ConcurrentHistogram(LATENCIA_MAXIMA, 3);
+        private final LongAdder fallidas = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder(); // 429 y 503: control de admisión o límite de login
+    }
+}
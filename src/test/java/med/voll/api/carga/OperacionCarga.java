@@ -0,0 +1,24 @@
+package med.voll.api.carga;
+
+import java.util.Locale;
+
+/**
+ * Operaciones de la mezcla de carga. Salvo el login, todas van con un token de las sesiones iniciales.
+ */
+enum OperacionCarga {
+
+    LOGIN,      // POST /login con un usuario sembrado al azar: un BCrypt completo
+    LISTAR,     // GET /medicos, una de las primeras páginas
+    DETALLE,    // GET /medicos/{id}
+    REGISTRAR,  // POST /medicos con email y documento nuevos
+    ACTUALIZAR, // PUT /medicos sin If-Match
+    DESACTIVAR; // DELETE /medicos/{id}: baja lógica, el médico sale del listado
+
+    String nombre() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static OperacionCarga deNombre(String nombre) {
+        return valueOf(nombre.toUpperCase(Locale.ROOT));
+    }
+}
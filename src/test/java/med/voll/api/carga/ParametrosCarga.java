@@ -0,0 +1,55 @@
+package med.voll.api.carga;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuración de la prueba de carga, leída de propiedades del sistema {@code carga.*}.
+ *
+ * @param tasa           solicitudes por segundo que se lanzan, respondan o no a tiempo (carga abierta)
+ * @param calentamiento  tiempo inicial a la misma tasa cuyas latencias no se registran
+ * @param duracion       tiempo de medición
+ * @param medicos        médicos sembrados antes de empezar
+ * @param pacientes      pacientes sembrados
+ * @param usuarios       usuarios sembrados, todos con la misma clave
+ * @param sesiones       tokens que se obtienen al empezar y se reparten entre las solicitudes autenticadas
+ * @param maximoEnVuelo  solicitudes sin respuesta a partir de las cuales las nuevas se descartan
+ * @param mezcla         peso relativo de cada operación
+ */
+record ParametrosCarga(int tasa, Duration calentamiento, Duration duracion, int medicos, int pacientes, int usuarios,
+                       int sesiones, int maximoEnVuelo, Map<OperacionCarga, Integer> mezcla) {
+
+    static ParametrosCarga desdePropiedades() {
+        return new ParametrosCarga(
+                Integer.getInteger("carga.tasa", 200),
+                Duration.parse(System.getProperty("carga.calentamiento", "PT10S")),
+                Duration.parse(System.getProperty("carga.duracion", "PT60S")),
+                Integer.getInteger("carga.medicos", 5_000),
+                Integer.getInteger("carga.pacientes", 5_000),
+                Integer.getInteger("carga.usuarios", 1_000),
+                Integer.getInteger("carga.sesiones", 50),
+                Integer.getInteger("carga.maximo-en-vuelo", 2_000),
+                mezcla(System.getProperty("carga.mezcla", "login:2,listar:30,detalle:45,registrar:10,actualizar:10,desactivar:3"))
+        );
+    }
+
+    // Formato: "operacion:peso,operacion:peso"; las operaciones que no aparecen no se ejecutan
+    static Map<OperacionCarga, Integer> mezcla(String valor) {
+        Map<OperacionCarga, Integer> mezcla = new EnumMap<>(OperacionCarga.class);
+        for (String entrada : valor.split(",")) {
+            String[] partes = entrada.trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Formato inválido en carga.mezcla, se esperaba operacion:peso: " + entrada);
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso > 0) {
+                mezcla.put(OperacionCarga.deNombre(partes[0].trim()), peso);
+            }
+        }
+        if (mezcla.isEmpty()) {
+            throw new IllegalArgumentException("carga.mezcla no incluye ninguna operación");
+        }
+        return mezcla;
+    }
+}
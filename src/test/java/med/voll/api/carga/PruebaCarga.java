@@ -0,0 +1,64 @@
+package med.voll.api.carga;
+
+import med.voll.api.ApiApplication;
+import med.voll.api.carga.SembradorDatos.DatosSembrados;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Prueba de carga de extremo a extremo sin MySQL: arranca la API completa con el perfil {@code carga} sobre H2 en
+ * modo MySQL (las migraciones de Flyway se aplican igual que en producción), siembra médicos, pacientes y usuarios,
+ * y lanza por HTTP la mezcla de {@link OperacionCarga} a la tasa indicada.
+ * <p>
+ * Imprime por operación solicitudes por segundo y percentiles de latencia, y guarda los histogramas en
+ * {@code target/carga/*.hgrm} para comparar ejecuciones.
+ *
+ * <pre>
+ * mvn -Pcarga test
+ * mvn -Pcarga test -Dcarga.opciones="-Dcarga.tasa=500 -Dcarga.duracion=PT2M -Dspring.threads.virtual.enabled=true"
+ * </pre>
+ * Propiedades: {@code carga.tasa}, {@code carga.calentamiento}, {@code carga.duracion}, {@code carga.medicos},
+ * {@code carga.pacientes}, {@code carga.usuarios}, {@code carga.sesiones}, {@code carga.maximo-en-vuelo} y
+ * {@code carga.mezcla} (ver {@link ParametrosCarga}); cualquier otra propiedad de la aplicación se puede pasar igual.
+ */
+public final class PruebaCarga {
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ParametrosCarga parametros = ParametrosCarga.desdePropiedades();
+        System.setProperty("spring.devtools.restart.enabled", "false"); // Devtools está en el classpath de pruebas
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApiApplication.class)
+                .profiles("carga")
+                .run(args)) {
+            int puerto = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            System.out.printf("Sembrando %d médicos, %d pacientes y %d usuarios...%n",
+                    parametros.medicos(), parametros.pacientes(), parametros.usuarios());
+            DatosSembrados datos = new SembradorDatos(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class))
+                    .sembrar(parametros);
+
+            GeneradorCarga generador = new GeneradorCarga(URI.create("http://localhost:" + puerto), parametros, datos);
+            generador.iniciarSesiones();
+
+            System.out.printf("Calentamiento: %s a %d sol/s%n", parametros.calentamiento(), parametros.tasa());
+            generador.ejecutar(parametros.calentamiento());
+
+            System.out.printf("Medición: %s a %d sol/s, mezcla %s%n", parametros.duracion(), parametros.tasa(), parametros.mezcla());
+            InformeCarga informe = generador.ejecutar(parametros.duracion());
+
+            informe.imprimir(System.out, parametros.duracion());
+            Path directorio = Path.of("target", "carga");
+            informe.guardarHistogramas(directorio);
+            System.out.println("Histogramas en " + directorio.toAbsolutePath());
+        }
+    }
+}
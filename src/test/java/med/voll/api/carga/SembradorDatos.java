@@ -0,0 +1,82 @@
+package med.voll.api.carga;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserta los datos iniciales con batches JDBC, sin pasar por la API ni por las caches. Todos los usuarios
+ * comparten la clave {@link #CLAVE}, cifrada una sola vez con el BCrypt calibrado de la aplicación.
+ */
+class SembradorDatos {
+
+    static final String CLAVE = "clave-de-carga";
+
+    private static final int TAMANO_LOTE = 1_000;
+    private static final String[] ESPECIALIDADES = {"ortopedia", "cardiologia", "ginecologia", "pediatria"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    SembradorDatos(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    /**
+     * @return rango de ids de los médicos sembrados y logins de los usuarios
+     */
+    DatosSembrados sembrar(ParametrosCarga parametros) {
+        insertar("INSERT INTO medicos (nombre, telefono, email, documento, especialidad, calle, distrito, ciudad, numero, complemento, activo) "
+                        + "VALUES (?, '3001234567', ?, ?, ?, 'calle', 'distrito', 'ciudad', '1', 'complemento', TRUE)",
+                parametros.medicos(),
+                i -> new Object[]{"Medico " + i, "medico" + i + "@carga.voll.med", String.valueOf(10_000_000L + i), ESPECIALIDADES[i % ESPECIALIDADES.length]});
+
+        insertar("INSERT INTO pacientes (nombre, email, documento_identidad, telefono, calle, distrito, ciudad, numero, complemento, activo) "
+                        + "VALUES (?, ?, ?, '3001234567', 'calle', 'distrito', 'ciudad', '1', 'complemento', TRUE)",
+                parametros.pacientes(),
+                i -> new Object[]{"Paciente " + i, "paciente" + i + "@carga.voll.med", String.valueOf(10_000_000L + i)});
+
+        String hash = passwordEncoder.encode(CLAVE);
+        insertar("INSERT INTO usuarios (login, clave, rol) VALUES (?, ?, 'ROLE_ADMIN')",
+                parametros.usuarios(),
+                i -> new Object[]{DatosSembrados.login(i), hash});
+
+        Long primerId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM medicos", Long.class);
+        Long ultimoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM medicos", Long.class);
+        return new DatosSembrados(primerId != null ? primerId : 0, ultimoId != null ? ultimoId : 0, parametros.usuarios());
+    }
+
+    private void insertar(String sql, int cantidad, Fila fila) {
+        List<Object[]> lote = new ArrayList<>(TAMANO_LOTE);
+        for (int i = 0; i < cantidad; i++) {
+            lote.add(fila.valores(i));
+            if (lote.size() == TAMANO_LOTE) {
+                jdbcTemplate.batchUpdate(sql, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, lote);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Fila {
+        Object[] valores(int i);
+    }
+
+    /**
+     * @param primerMedico id del primer médico sembrado
+     * @param ultimoMedico id del último
+     * @param usuarios     cantidad de usuarios; el login del i-ésimo es {@code carga<i>}
+     */
+    record DatosSembrados(long primerMedico, long ultimoMedico, int usuarios) {
+
+        static String login(int i) {
+            return "carga" + i;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package med.voll.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.domain.usuario.RefreshTokenRepository;
+import med.voll.api.domain.usuario.RoleEnum;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import med.voll.api.infra.security.ColaLoginLlenaException;
+import med.voll.api.infra.security.EjecutorLogin;
+import med.voll.api.infra.security.RevocacionTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AutenticacionControllerTest {
+
+    private static final String LOGIN = "login@voll.med";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RevocacionTokenService revocacionTokenService;
+
+    @Autowired
+    private EjecutorLogin ejecutorLogin;
+
+
+    @BeforeEach
+    void crearUsuario() {
+        refreshTokenRepository.deleteAll();
+        Usuario existente = (Usuario) usuarioRepository.findByLogin(LOGIN);
+        if (existente != null) {
+            usuarioRepository.delete(existente);
+        }
+        // Hash con una fuerza menor a la configurada en las pruebas (5)
+        usuarioRepository.save(new Usuario(LOGIN, new BCryptPasswordEncoder(4).encode("123456"), RoleEnum.ROLE_ADMIN));
+    }
+
+    @Test
+    void autenticaYActualizaLaFuerzaDelHash() throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"" + LOGIN + "\",\"clave\":\"123456\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("AUTH_SUCCESS"))
+                .andExpect(jsonPath("$.authenticationToken").isNotEmpty())
+                .andExpect(jsonPath("$.refreshToken").isNotEmpty());
+
+        assertTrue(usuarioRepository.findByLogin(LOGIN).getPassword().startsWith("$2a$05$"));
+    }
+
+    @Test
+    void rechazaTokensInvalidosConElCuerpoDelCatalogo() throws Exception {
+        mockMvc.perform(get("/medicos").header(HttpHeaders.AUTHORIZATION, "Bearer no-es-un-jwt"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("{\"code\":\"ERR_MALFORMED_TOKEN\",\"message\":\"Token mal formado\"}"));
+    }
+
+    @Test
+    void rechazaClaveIncorrecta() throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"" + LOGIN + "\",\"clave\":\"incorrecta\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("ERR_INVALID_CREDENTIALS"));
+    }
+
+    @Test
+    void bloqueaElLoginTrasClavesIncorrectasSeguidas() throws Exception {
+        // IP y login propios: el bloqueo no alcanza al resto de las pruebas
+        String login = "bloqueado@voll.med";
+        for (int i = 0; i < 5; i++) {
+            MvcResult resultado = mockMvc.perform(loginDesde("10.9.9.9", login, "incorrecta"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(resultado))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // Ni siquiera la clave correcta pasa durante el bloqueo (bloqueo-inicial de 30 s)
+        MvcResult bloqueado = mockMvc.perform(loginDesde("10.9.9.9", login, "123456")).andReturn();
+        mockMvc.perform(asyncDispatch(bloqueado))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"))
+                .andExpect(jsonPath("$.code").value("ERR_TOO_MANY_LOGIN_ATTEMPTS"));
+    }
+
+    @Test
+    void rechazaElLoginConLaColaDeVerificacionLlena() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        try {
+            llenarEjecutorLogin(liberar);
+            Thread.sleep(200); // Los hilos ociosos toman tareas de la cola y liberan lugares: se vuelven a ocupar
+            llenarEjecutorLogin(liberar);
+
+            mockMvc.perform(post("/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"login\":\"" + LOGIN + "\",\"clave\":\"123456\"}"))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.code").value("ERR_TOO_MANY_REQUESTS"));
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    void rotaElRefreshTokenYDetectaSuReutilizacion() throws Exception {
+        String refreshInicial = login().get("refreshToken").asText();
+
+        String refreshRotado = objectMapper.readTree(mockMvc.perform(refresh(refreshInicial))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.code").value("TOKEN_REFRESHED"))
+                        .andExpect(jsonPath("$.authenticationToken").isNotEmpty())
+                        .andReturn().getResponse().getContentAsString())
+                .get("refreshToken").asText();
+
+        // Reutilizar el token consumido revoca toda la familia, incluido el token rotado
+        mockMvc.perform(refresh(refreshInicial))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("ERR_REFRESH_TOKEN_REUSED"));
+        mockMvc.perform(refresh(refreshRotado))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("ERR_INVALID_REFRESH_TOKEN"));
+    }
+
+    @Test
+    void rechazaElRefreshTokenVencidoSinConsumirlo() throws Exception {
+        String refresh = login().get("refreshToken").asText();
+        jdbcTemplate.update("UPDATE refresh_tokens SET expira_en = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+
+        // Presentarlo de nuevo sigue siendo un vencimiento, no una reutilización que revoque la familia
+        for (int intento = 0; intento < 2; intento++) {
+            mockMvc.perform(refresh(refresh))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(jsonPath("$.code").value("ERR_REFRESH_TOKEN_EXPIRED"));
+        }
+        assertFalse(refreshTokenRepository.findAll().get(0).isUsado());
+        assertFalse(refreshTokenRepository.findAll().get(0).isRevocado());
+    }
+
+    @Test
+    void cerrarSesionRevocaLosTokensEmitidos() throws Exception {
+        JsonNode tokens = login();
+        String autorizacion = "Bearer " + tokens.get("authenticationToken").asText();
+        mockMvc.perform(get("/medicos").header(HttpHeaders.AUTHORIZATION, autorizacion))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/login/logout").header(HttpHeaders.AUTHORIZATION, autorizacion))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/medicos").header(HttpHeaders.AUTHORIZATION, autorizacion))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("ERR_TOKEN_REVOKED"));
+        mockMvc.perform(refresh(tokens.get("refreshToken").asText()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("ERR_INVALID_REFRESH_TOKEN"));
+
+        // Un refresco con una lectura anterior a la revocación (o de una réplica retrasada) no la deshace
+        jdbcTemplate.update("UPDATE usuarios SET tokens_validos_desde = NULL WHERE login = ?", LOGIN);
+        revocacionTokenService.refrescar();
+        mockMvc.perform(get("/medicos").header(HttpHeaders.AUTHORIZATION, autorizacion))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("ERR_TOKEN_REVOKED"));
+    }
+
+    // Encola tareas que esperan a "liberar" hasta que el ejecutor las rechaza
+    private void llenarEjecutorLogin(CountDownLatch liberar) {
+        for (int i = 0; i < 10_000; i++) {
+            try {
+                ejecutorLogin.ejecutar(() -> {
+                    try {
+                        return liberar.await(Duration.ofSeconds(30).toMillis(), TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                });
+            } catch (ColaLoginLlenaException e) {
+                return;
+            }
+        }
+        fail("La cola de EjecutorLogin nunca se llenó");
+    }
+
+    private JsonNode login() throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"" + LOGIN + "\",\"clave\":\"123456\"}"))
+                .andReturn();
+        return objectMapper.readTree(mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private MockHttpServletRequestBuilder loginDesde(String ip, String login, String clave) {
+        return post("/login")
+                .with(solicitud -> {
+                    solicitud.setRemoteAddr(ip);
+                    return solicitud;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"login\":\"" + login + "\",\"clave\":\"" + clave + "\"}");
+    }
+
+    private MockHttpServletRequestBuilder refresh(String refreshToken) {
+        return post("/login/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}");
+    }
+}
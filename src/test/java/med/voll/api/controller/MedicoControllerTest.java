@@ -0,0 +1,318 @@
+package med.voll.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import med.voll.api.domain.direccion.DatosDireccion;
+import med.voll.api.domain.medico.DatosRegistroMedico;
+import med.voll.api.domain.medico.DatosRespuestaMedico;
+import med.voll.api.domain.medico.Especialidad;
+import med.voll.api.domain.medico.Medico;
+import med.voll.api.domain.medico.MedicoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = "ROLE_ADMIN")
+class MedicoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void crearMedicos() {
+        // Los datos de prueba se escriben con el repositorio, sin pasar por las invalidaciones del servicio
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+        medicoRepository.deleteAll();
+        // Dos médicos con el mismo nombre para comprobar el desempate por id
+        for (String nombre : List.of("Ana", "Bruno", "Bruno", "Carla", "Diego")) {
+            registrar(nombre);
+        }
+        medicoRepository.save(registrar("Inactivo").desactivarMedico());
+    }
+
+    @Test
+    void recorreElListadoPorCursorSinRepetirNiOmitirFilas() throws Exception {
+        List<String> nombres = new ArrayList<>();
+        String cursor = "";
+        do {
+            JsonNode bloque = objectMapper.readTree(mockMvc.perform(get("/medicos").param("cursor", cursor).param("tamano", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            bloque.get("contenido").forEach(medico -> nombres.add(medico.get("nombre").asText()));
+            cursor = bloque.get("siguienteCursor").isNull() ? null : bloque.get("siguienteCursor").asText();
+        } while (cursor != null);
+
+        assertEquals(List.of("Ana", "Bruno", "Bruno", "Carla", "Diego"), nombres);
+    }
+
+    @Test
+    void devuelveElTotalSoloSiSePide() throws Exception {
+        mockMvc.perform(get("/medicos").param("cursor", "").param("total", "true"))
+                .andExpect(jsonPath("$.total").value(5));
+        mockMvc.perform(get("/medicos").param("cursor", ""))
+                .andExpect(jsonPath("$.total").isEmpty());
+    }
+
+    @Test
+    void listaEnModoSliceSinTotales() throws Exception {
+        mockMvc.perform(get("/medicos").param("modo", "slice").param("pagina", "0"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(2))
+                .andExpect(jsonPath("$.tieneSiguiente").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+        mockMvc.perform(get("/medicos").param("modo", "slice").param("pagina", "2"))
+                .andExpect(jsonPath("$.contenido.length()").value(1))
+                .andExpect(jsonPath("$.tieneSiguiente").value(false));
+    }
+
+    @Test
+    void rechazaCursoresInvalidos() throws Exception {
+        mockMvc.perform(get("/medicos").param("cursor", "no-es-un-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("ERR_INVALID_CURSOR"));
+    }
+
+    @Test
+    void buscaCombinandoFiltrosYPaginaPorCursor() throws Exception {
+        JsonNode primero = objectMapper.readTree(mockMvc.perform(get("/medicos/busqueda")
+                        .param("especialidad", "cardiologia").param("ciudad", "ciudad").param("nombre", "Br").param("tamano", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Bruno"))
+                .andReturn().getResponse().getContentAsString());
+        mockMvc.perform(get("/medicos/busqueda").param("nombre", "Br").param("tamano", "1")
+                        .param("cursor", primero.get("siguienteCursor").asText()))
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Bruno"))
+                .andExpect(jsonPath("$.contenido[0].id").value(primero.get("contenido").get(0).get("id").asLong() + 1))
+                .andExpect(jsonPath("$.siguienteCursor").isEmpty());
+
+        mockMvc.perform(get("/medicos/busqueda").param("nombre", "  "))
+                .andExpect(jsonPath("$.contenido.length()").value(5));
+        mockMvc.perform(get("/medicos/busqueda").param("especialidad", "pediatria"))
+                .andExpect(jsonPath("$.contenido.length()").value(0));
+        mockMvc.perform(get("/medicos/busqueda").param("ciudad", "otra"))
+                .andExpect(jsonPath("$.contenido.length()").value(0));
+        // Los comodines se buscan literalmente
+        mockMvc.perform(get("/medicos/busqueda").param("nombre", "%"))
+                .andExpect(jsonPath("$.contenido.length()").value(0));
+        // Un filtro más largo que la columna no puede coincidir: se rechaza antes de consultar
+        mockMvc.perform(get("/medicos/busqueda").param("nombre", "B".repeat(101)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("ERR_INVALID_REQUEST"));
+        mockMvc.perform(get("/medicos/busqueda").param("ciudad", "c".repeat(101)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("ERR_INVALID_REQUEST"));
+        // El largo se mide sin los espacios alrededor
+        mockMvc.perform(get("/medicos/busqueda").param("nombre", " " + "B".repeat(100) + " "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(0));
+    }
+
+    @Test
+    void informaElCampoDuplicadoAlRegistrar() throws Exception {
+        mockMvc.perform(post("/medicos").contentType(MediaType.APPLICATION_JSON).content(registro("medico1@voll.med", "20000021")))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("ERR_DUPLICATE_RECORD"))
+                .andExpect(jsonPath("$.campo").value("email"));
+        mockMvc.perform(post("/medicos").contentType(MediaType.APPLICATION_JSON).content(registro("nuevo@voll.med", "10000001")))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.campo").value("documento"));
+        mockMvc.perform(post("/medicos").contentType(MediaType.APPLICATION_JSON).content(registro("nuevo@voll.med", "20000021")))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void importaNdjsonYReportaCadaFila() throws Exception {
+        String direccion = "\"direccion\":{\"calle\":\"calle\",\"distrito\":\"distrito\",\"ciudad\":\"ciudad\",\"numero\":\"1\",\"complemento\":\"c\"}";
+        String archivo = String.join("\n",
+                "{\"nombre\":\"Elena\",\"telefono\":\"300\",\"email\":\"elena@voll.med\",\"documento\":\"20000001\",\"especialidad\":\"pediatria\"," + direccion + "}",
+                "{\"nombre\":\"Elena bis\",\"telefono\":\"300\",\"email\":\"elena@voll.med\",\"documento\":\"20000002\",\"especialidad\":\"pediatria\"," + direccion + "}",
+                "{\"nombre\":\"Existente\",\"telefono\":\"300\",\"email\":\"medico1@voll.med\",\"documento\":\"10000001\",\"especialidad\":\"pediatria\"," + direccion + "}",
+                "{\"nombre\":\"Sin documento\",\"telefono\":\"300\",\"email\":\"otro@voll.med\",\"documento\":\"abc\",\"especialidad\":\"pediatria\"," + direccion + "}",
+                "{no es json");
+
+        List<JsonNode> reporte = importar(archivo, "application/x-ndjson");
+
+        assertEquals(List.of("CREADO", "DUPLICADO", "DUPLICADO", "INVALIDO", "INVALIDO"),
+                reporte.stream().map(fila -> fila.get("estado").asText()).toList());
+        assertEquals("email ya registrado", reporte.get(1).get("errores").get(0).asText());
+        assertEquals(2, reporte.get(2).get("errores").size());
+        assertEquals("Elena", medicoRepository.findById(reporte.get(0).get("id").asLong()).orElseThrow().getNombre());
+    }
+
+    @Test
+    void importaCsvConCamposEntreComillas() throws Exception {
+        String archivo = String.join("\n",
+                "nombre,telefono,email,documento,especialidad,calle,distrito,ciudad,numero,complemento",
+                "Fabio,300,fabio@voll.med,20000011,ortopedia,calle,distrito,ciudad,1,\"piso 2, oficina \"\"B\"\"\"",
+                "Gina,300,gina@voll.med,20000012,cardiologia,calle,distrito,ciudad,1,casa");
+
+        List<JsonNode> reporte = importar(archivo, "text/csv");
+
+        assertEquals(List.of(2L, 3L), reporte.stream().map(fila -> fila.get("linea").asLong()).toList());
+        assertEquals("piso 2, oficina \"B\"", medicoRepository.findById(reporte.get(0).get("id").asLong())
+                .orElseThrow().getDireccion().getComplemento());
+        assertEquals(7, medicoRepository.countByActivoTrue());
+    }
+
+    @Test
+    void exportaNdjsonFiltrandoPorEspecialidad() throws Exception {
+        String[] lineas = exportar(get("/medicos/exportacion").param("especialidad", "cardiologia")).split("\n");
+
+        assertEquals(5, lineas.length);
+        JsonNode primero = objectMapper.readTree(lineas[0]);
+        assertEquals("cardiologia", primero.get("especialidad").asText());
+        assertEquals("calle", primero.get("direccion").get("calle").asText());
+
+        assertEquals("", exportar(get("/medicos/exportacion").param("especialidad", "pediatria")));
+        mockMvc.perform(get("/medicos/exportacion").param("especialidad", "desconocida"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("ERR_INVALID_SPECIALITY"));
+    }
+
+    @Test
+    void exportaCsvDeInactivos() throws Exception {
+        String[] lineas = exportar(get("/medicos/exportacion").param("formato", "csv").param("activo", "false")).split("\n");
+
+        assertEquals("id,nombre,telefono,email,documento,especialidad,calle,distrito,ciudad,numero,complemento,activo", lineas[0]);
+        assertEquals(2, lineas.length);
+        assertEquals("Inactivo", lineas[1].split(",")[1]);
+        // La exportación es asíncrona: su lugar en el control de admisión se libera al terminar la descarga
+        assertEquals(0, meterRegistry.get("admision.en.ejecucion").tag("clase", "transferencia").gauge().value());
+    }
+
+    @Test
+    void usaLaVersionComoEtagParaCacheYActualizacionesCondicionales() throws Exception {
+        Long id = registrar("Eva").getId();
+        String etag = mockMvc.perform(get("/medicos/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals("\"0\"", etag);
+
+        mockMvc.perform(get("/medicos/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        String cambio = "{\"id\":" + id + ",\"nombre\":\"Eva María\"}";
+        mockMvc.perform(put("/medicos").contentType(MediaType.APPLICATION_JSON).content(cambio).header(HttpHeaders.IF_MATCH, "\"7\""))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("ERR_PRECONDITION_FAILED"));
+        mockMvc.perform(put("/medicos").contentType(MediaType.APPLICATION_JSON).content(cambio).header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.code").value("UPDATED"))
+                .andExpect(jsonPath("$.message").value("Médico actualizado exitosamente."))
+                .andExpect(jsonPath("$.medico.nombre").value("Eva María"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // El ETag anterior ya no vale ni para el 304 ni para borrar
+        mockMvc.perform(get("/medicos/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Eva María"));
+        mockMvc.perform(delete("/medicos/{id}", id).header(HttpHeaders.IF_MATCH, etag))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void cacheaElDirectorioYLoInvalidaAlModificarUnMedico() throws Exception {
+        Long id = medicoRepository.findAll().getFirst().getId();
+        mockMvc.perform(get("/medicos").param("pagina", "0").param("tamano", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, private"))
+                .andExpect(jsonPath("$.content[0].nombre").value("Ana"));
+        mockMvc.perform(get("/medicos/{id}", id))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+        assertEquals(id, ((DatosRespuestaMedico) cacheManager.getCache("medicos").get(id).get()).id());
+
+        mockMvc.perform(put("/medicos").contentType(MediaType.APPLICATION_JSON).content("{\"id\":" + id + ",\"nombre\":\"Aaron\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/medicos").param("pagina", "0").param("tamano", "10"))
+                .andExpect(jsonPath("$.content[0].nombre").value("Aaron"));
+        mockMvc.perform(get("/medicos/{id}", id))
+                .andExpect(jsonPath("$.nombre").value("Aaron"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(delete("/medicos/{id}", id)).andExpect(status().isNoContent());
+        assertNull(cacheManager.getCache("medicos").get(id));
+        mockMvc.perform(get("/medicos").param("pagina", "0").param("tamano", "10"))
+                .andExpect(jsonPath("$.totalElements").value(4));
+    }
+
+    private String exportar(MockHttpServletRequestBuilder solicitud) throws Exception {
+        MvcResult resultado = mockMvc.perform(solicitud)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private List<JsonNode> importar(String archivo, String contentType) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/medicos/importacion").contentType(contentType).content(archivo))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String reporte = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<JsonNode> filas = new ArrayList<>();
+        for (String linea : reporte.split("\n")) {
+            filas.add(objectMapper.readTree(linea));
+        }
+        return filas;
+    }
+
+    private static String registro(String email, String documento) {
+        return "{\"nombre\":\"Nuevo\",\"telefono\":\"300\",\"email\":\"" + email + "\",\"documento\":\"" + documento
+                + "\",\"especialidad\":\"pediatria\",\"direccion\":{\"calle\":\"calle\",\"distrito\":\"distrito\","
+                + "\"ciudad\":\"ciudad\",\"numero\":\"1\",\"complemento\":\"c\"}}";
+    }
+
+    private Medico registrar(String nombre) {
+        long n = medicoRepository.count() + 1;
+        return medicoRepository.save(new Medico(new DatosRegistroMedico(
+                nombre, "3001234567", "medico" + n + "@voll.med", String.valueOf(10000000L + n),
+                Especialidad.CARDIOLOGIA, new DatosDireccion("calle", "distrito", "ciudad", "1", "complemento"))));
+    }
+}
@@ -0,0 +1,98 @@
+package med.voll.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import med.voll.api.domain.usuario.RefreshTokenRepository;
+import med.voll.api.domain.usuario.RoleEnum;
+import med.voll.api.domain.usuario.Usuario;
+import med.voll.api.domain.usuario.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "api.security.principal-sin-estado=true")
+@AutoConfigureMockMvc
+class PrincipalSinEstadoTest {
+
+    private static final String LOGIN = "sin-estado@voll.med";
+    // Las revocaciones en memoria no se olvidan: quien cierra sesión no debe ser el usuario de las demás pruebas
+    private static final String LOGIN_CIERRE = "sin-estado-cierre@voll.med";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void crearUsuarios() {
+        refreshTokenRepository.deleteAll();
+        crearUsuario(LOGIN);
+        crearUsuario(LOGIN_CIERRE);
+    }
+
+    @Test
+    void autenticaConElRolDelTokenSinReleerElUsuario() throws Exception {
+        String autorizacion = "Bearer " + login(LOGIN).get("authenticationToken").asText();
+        // Un rol sin acceso a /pacientes: el token firmado sigue diciendo ROLE_ADMIN hasta que expire o se revoque
+        jdbcTemplate.update("UPDATE usuarios SET rol = 'ROLE_USER_PATIENT' WHERE login = ?", LOGIN);
+
+        mockMvc.perform(get("/pacientes").header(HttpHeaders.AUTHORIZATION, autorizacion))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rechazaElTokenTrasCerrarSesion() throws Exception {
+        String autorizacion = "Bearer " + login(LOGIN_CIERRE).get("authenticationToken").asText();
+        mockMvc.perform(get("/medicos").header(HttpHeaders.AUTHORIZATION, autorizacion))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/login/logout").header(HttpHeaders.AUTHORIZATION, autorizacion))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/medicos").header(HttpHeaders.AUTHORIZATION, autorizacion))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value("ERR_TOKEN_REVOKED"));
+    }
+
+    private void crearUsuario(String login) {
+        Usuario existente = (Usuario) usuarioRepository.findByLogin(login);
+        if (existente != null) {
+            usuarioRepository.delete(existente);
+        }
+        usuarioRepository.save(new Usuario(login, new BCryptPasswordEncoder(4).encode("123456"), RoleEnum.ROLE_ADMIN));
+    }
+
+    private JsonNode login(String login) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"login\":\"" + login + "\",\"clave\":\"123456\"}"))
+                .andReturn();
+        return objectMapper.readTree(mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
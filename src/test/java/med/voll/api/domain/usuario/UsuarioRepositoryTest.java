@@ -0,0 +1,39 @@
+package med.voll.api.domain.usuario;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UsuarioRepositoryTest {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void cacheaPorLoginEInvalidaAlGuardar() {
+        Cache cache = cacheManager.getCache("usuarios");
+        Usuario usuario = usuarioRepository.save(new Usuario("cache@voll.med", "clave", RoleEnum.ROLE_USER_MEDIC));
+
+        assertSame(usuarioRepository.findByLogin("cache@voll.med"), usuarioRepository.findByLogin("cache@voll.med"));
+        assertNotNull(cache.get("cache@voll.med"));
+
+        usuarioRepository.save(new Usuario(usuario.getId(), usuario.getLogin(), "otra", RoleEnum.ROLE_ADMIN, null));
+
+        assertNull(cache.get("cache@voll.med"));
+        assertEquals(RoleEnum.ROLE_ADMIN, ((Usuario) usuarioRepository.findByLogin("cache@voll.med")).getRol());
+    }
+
+    @Test
+    void noCacheaLoginsInexistentes() {
+        assertNull(usuarioRepository.findByLogin("nadie@voll.med"));
+        assertNull(cacheManager.getCache("usuarios").get("nadie@voll.med"));
+    }
+}
@@ -0,0 +1,66 @@
+package med.voll.api.infra.admision;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import med.voll.api.infra.errors.ContadorErrores;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroAdmisionTest {
+
+    // Una solicitud asíncrona conserva su lugar hasta que termina
+    private static final FilterChain ASINCRONA = (request, response) -> request.startAsync();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final FiltroAdmision filtro = new FiltroAdmision(Map.of(
+            ClaseSolicitud.AUTENTICACION, limiteFijo(1),
+            ClaseSolicitud.LECTURA, limiteFijo(1),
+            ClaseSolicitud.ESCRITURA, limiteFijo(1),
+            ClaseSolicitud.TRANSFERENCIA, limiteFijo(1)
+    ), new ContadorErrores(meterRegistry), meterRegistry);
+
+    @Test
+    void rechazaCon503YRetryAfterAlSuperarElLimite() throws Exception {
+        filtro.doFilter(solicitud("GET", "/medicos"), new MockHttpServletResponse(), ASINCRONA);
+
+        MockHttpServletResponse rechazada = new MockHttpServletResponse();
+        filtro.doFilter(solicitud("GET", "/pacientes"), rechazada, (request, response) -> fail("No debía admitirse"));
+
+        assertEquals(503, rechazada.getStatus());
+        assertEquals("1", rechazada.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(rechazada.getContentAsString().contains("\"code\":\"ERR_SERVICE_OVERLOADED\""));
+        assertEquals(1, meterRegistry.get("api.errores").tag("code", "ERR_SERVICE_OVERLOADED").counter().count());
+    }
+
+    @Test
+    void lasExportacionesNoOcupanElLugarDeLasLecturas() throws Exception {
+        filtro.doFilter(solicitud("GET", "/medicos/exportacion"), new MockHttpServletResponse(), ASINCRONA);
+
+        MockHttpServletResponse lectura = new MockHttpServletResponse();
+        filtro.doFilter(solicitud("GET", "/medicos"), lectura, (request, response) -> {
+        });
+        assertEquals(200, lectura.getStatus());
+
+        MockHttpServletResponse otraExportacion = new MockHttpServletResponse();
+        filtro.doFilter(solicitud("GET", "/pacientes/exportacion"), otraExportacion, ASINCRONA);
+        assertEquals(503, otraExportacion.getStatus());
+    }
+
+    private static LimiteAdaptativo limiteFijo(int limite) {
+        return new LimiteAdaptativo(limite, limite, limite, 0, Duration.ZERO, Duration.ofSeconds(1));
+    }
+
+    private static MockHttpServletRequest solicitud(String metodo, String ruta) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, ruta);
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
@@ -0,0 +1,71 @@
+package med.voll.api.infra.admision;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteAdaptativoTest {
+
+    @Test
+    void rechazaAlSuperarElLimiteSinCola() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(2, 1, 2, 0, Duration.ZERO, Duration.ofSeconds(1));
+
+        LimiteAdaptativo.Permiso primero = limite.adquirir(true);
+        assertNotNull(primero);
+        assertNotNull(limite.adquirir(true));
+        assertNull(limite.adquirir(true));
+
+        primero.liberar(false);
+        primero.liberar(false); // Liberar dos veces no abre un segundo lugar
+        assertEquals(1, limite.enEjecucion());
+        assertNotNull(limite.adquirir(true));
+        assertNull(limite.adquirir(true));
+    }
+
+    @Test
+    void creceConSolicitudesRapidasYSeReduceConFallos() {
+        LimiteAdaptativo limite = new LimiteAdaptativo(10, 4, 11, 0, Duration.ZERO, Duration.ofSeconds(10));
+
+        // Con el límite casi sin uso no crece
+        limite.adquirir(true).liberar(false);
+        assertEquals(10, limite.limite());
+
+        LimiteAdaptativo.Permiso[] permisos = new LimiteAdaptativo.Permiso[6];
+        for (int i = 0; i < permisos.length; i++) {
+            permisos[i] = limite.adquirir(true);
+        }
+        permisos[0].liberar(false);
+        permisos[1].liberar(false);
+        assertEquals(11, limite.limite()); // Máximo
+
+        permisos[2].liberar(true);
+        assertEquals(9, limite.limite());
+        permisos[3].liberar(true);
+        permisos[4].liberar(true);
+        permisos[5].liberar(true);
+        assertEquals(6, limite.limite()); // 9 -> 8 -> 7 -> 6
+
+        // Las solicitudes que no se muestrean no cambian el límite
+        limite.adquirir(false).liberar(true);
+        assertEquals(6, limite.limite());
+    }
+
+    @Test
+    void esperaUnLugarLibreDentroDelPlazo() throws Exception {
+        LimiteAdaptativo limite = new LimiteAdaptativo(1, 1, 1, 1, Duration.ofSeconds(5), Duration.ofSeconds(1));
+        LimiteAdaptativo.Permiso ocupado = limite.adquirir(true);
+
+        Thread liberador = new Thread(() -> {
+            while (limite.enCola() == 0) {
+                Thread.onSpinWait();
+            }
+            ocupado.liberar(false);
+        });
+        liberador.start();
+
+        assertNotNull(limite.adquirir(true));
+        liberador.join();
+    }
+}
@@ -0,0 +1,53 @@
+package med.voll.api.infra.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceAcotadoTest {
+
+    private final DataSourceAcotado dataSource = new DataSourceAcotado(
+            new DriverManagerDataSource("jdbc:h2:mem:acotado", "sa", ""), 1, Duration.ofMillis(50));
+
+    @Test
+    void esperaElTurnoYFallaComoElPoolSiNoLlega() throws Exception {
+        Connection primera = dataSource.getConnection();
+        assertEquals(0, dataSource.disponibles());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        primera.close();
+        primera.close(); // Cerrar dos veces no devuelve dos permisos
+        assertTrue(primera.isClosed());
+        assertEquals(1, dataSource.disponibles());
+
+        try (Connection segunda = dataSource.getConnection()) {
+            assertTrue(segunda.isValid(1));
+        }
+        assertEquals(1, dataSource.disponibles());
+    }
+
+    @Test
+    void elTimeoutDeHikariEsElTotalDelTurnoYLaEntrega() throws Exception {
+        try (HikariDataSource hikari = new HikariDataSource()) {
+            hikari.setJdbcUrl("jdbc:h2:mem:acotadoHikari");
+            hikari.setConnectionTimeout(1_000);
+            DataSourceAcotado acotado = DataSourceAcotado.de(hikari);
+            assertEquals(10, acotado.disponibles()); // Sin maximum-pool-size, el tamaño por defecto de Hikari
+            assertEquals(DataSourceAcotado.ESPERA_HIKARI_MS, hikari.getConnectionTimeout());
+
+            hikari.setMaximumPoolSize(1);
+            try (Connection ocupada = hikari.getConnection()) { // Inicia el pool y lo deja sin conexiones libres
+                long inicio = System.nanoTime();
+                assertThrows(SQLTransientConnectionException.class, acotado::getConnection);
+                assertTrue(System.nanoTime() - inicio < Duration.ofSeconds(1).toNanos());
+            }
+            assertEquals(10, acotado.disponibles());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package med.voll.api.infra.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dos bases H2 en memoria hacen de primario y réplica; la "replicación" se simula escribiendo el latido a mano
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "api.datasource.replica.url=" + ReplicaLecturaTest.URL_REPLICA,
+        "api.datasource.replica.retraso-maximo=PT5S",
+        "api.datasource.replica.monitor-intervalo=PT1H"
+})
+@AutoConfigureMockMvc
+@WithMockUser(authorities = "ROLE_ADMIN")
+class ReplicaLecturaTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String INSERTAR_MEDICO = "INSERT INTO medicos (id, nombre, telefono, email, documento, especialidad, "
+            + "calle, distrito, ciudad, numero, complemento, activo) VALUES (1, ?, '3001234567', 'replica@voll.med', '123456', "
+            + "'ortopedia', 'calle', 'distrito', 'ciudad', '1', 'complemento', TRUE)";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MonitorReplica monitorReplica;
+
+    @Autowired
+    @Qualifier("primarioDataSource")
+    private DataSource primarioDataSource;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private JdbcTemplate primario;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void prepararBases() {
+        // Cada prueba debe llegar a la base de datos, no al detalle cacheado por la anterior
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+
+        DataSource replicaDataSource = new DriverManagerDataSource(URL_REPLICA, "sa", "");
+        Flyway.configure().dataSource(replicaDataSource).load().migrate();
+
+        primario = new JdbcTemplate(primarioDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        // Mismo id con distinto nombre en cada base, para saber de dónde se leyó
+        primario.update("DELETE FROM medicos");
+        replica.update("DELETE FROM medicos");
+        primario.update(INSERTAR_MEDICO, "Desde primario");
+        replica.update(INSERTAR_MEDICO, "Desde replica");
+    }
+
+    @Test
+    void leeDeLaReplicaCuandoEstaAlDia() throws Exception {
+        replicaAlDia();
+
+        assertTrue(monitorReplica.disponible());
+        assertTrue(exportar().contains("\"nombre\":\"Desde replica\""));
+    }
+
+    // Lo que se guarda en cache sale del primario: una réplica retrasada no puede volver a llenarla tras una baja
+    @Test
+    void lasLecturasCacheadasNoRecuperanDeLaReplicaLoYaInvalidado() throws Exception {
+        replicaAlDia();
+        mockMvc.perform(get("/medicos").param("cursor", ""))
+                .andExpect(jsonPath("$.contenido[0].nombre").value("Desde primario"));
+
+        // La baja llega al primario; la réplica, aún dentro de retraso-maximo, sigue viendo al médico activo
+        mockMvc.perform(delete("/medicos/1")).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/medicos").param("cursor", ""))
+                .andExpect(jsonPath("$.contenido.length()").value(0));
+        mockMvc.perform(get("/medicos/busqueda").param("nombre", "Desde"))
+                .andExpect(jsonPath("$.contenido.length()").value(0));
+        mockMvc.perform(get("/medicos/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Desde primario"));
+    }
+
+    @Test
+    void vuelveAlPrimarioSiLaReplicaSeRetrasa() throws Exception {
+        replica.update("UPDATE replica_latido SET instante_ms = ? WHERE id = 1", System.currentTimeMillis() - 60_000);
+        monitorReplica.medirRetraso();
+
+        assertFalse(monitorReplica.disponible());
+        mockMvc.perform(get("/medicos/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Desde primario"));
+    }
+
+    private void replicaAlDia() {
+        replica.update("UPDATE replica_latido SET instante_ms = ? WHERE id = 1", System.currentTimeMillis());
+        monitorReplica.medirRetraso();
+    }
+
+    private String exportar() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/medicos/exportacion"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void elLatidoSeEscribeEnElPrimario() {
+        monitorReplica.verificar();
+
+        Long instante = primario.queryForObject("SELECT instante_ms FROM replica_latido WHERE id = 1", Long.class);
+        assertTrue(System.currentTimeMillis() - instante < 5_000);
+    }
+}
@@ -0,0 +1,47 @@
+package med.voll.api.infra.metricas;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sin @AutoConfigureObservability las pruebas solo tienen el registro en memoria, no el de Prometheus
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricasPrometheusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    void exponeLatenciaErroresYConsultasPorSolicitud() throws Exception {
+        mockMvc.perform(get("/medicos/{id}", 987654)).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("api_errores_total{code=\"ERR_RECORD_NOT_FOUND\",status=\"404\"}")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("hibernate_consultas_por_solicitud_count{method=\"GET\",uri=\"/medicos/{id}\"}")))
+                .andExpect(content().string(containsString("hibernate_statements_total{")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")));
+    }
+
+    @Test
+    void rechazaLaLecturaDesdeOtraMaquina() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(solicitud -> {
+                    solicitud.setRemoteAddr("10.0.0.8");
+                    return solicitud;
+                }))
+                .andExpect(status().is4xxClientError());
+    }
+}
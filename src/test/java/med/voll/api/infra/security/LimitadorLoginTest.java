@@ -0,0 +1,71 @@
+package med.voll.api.infra.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LimitadorLoginTest {
+
+    private final AtomicLong reloj = new AtomicLong();
+
+    // IP: ráfaga de 4, un intento por segundo. Login: ráfaga de 2, un intento cada 10 segundos. Bloqueo tras 3 fallos
+    private final LimitadorLogin limitador = new LimitadorLogin(reloj::get,
+            LimitadorLogin.Cubeta.de(4, 60), LimitadorLogin.Cubeta.de(2, 6), 3,
+            Duration.ofSeconds(30), Duration.ofMinutes(2), Duration.ofMinutes(15), 1_000);
+
+    @Test
+    void admiteLaRafagaYLuegoElRitmoDeRecarga() {
+        assertEquals(0, limitador.segundosDeEspera("10.0.0.1", "ana"));
+        assertEquals(0, limitador.segundosDeEspera("10.0.0.1", "ANA "));
+        assertEquals(10, limitador.segundosDeEspera("10.0.0.1", "ana"));
+
+        // El intento rechazado por la cubeta del login no gastó el de la IP, a la que aún le quedan 2
+        assertEquals(0, limitador.segundosDeEspera("10.0.0.1", "bruno"));
+        assertEquals(0, limitador.segundosDeEspera("10.0.0.1", "carla"));
+        assertEquals(1, limitador.segundosDeEspera("10.0.0.1", "diego"));
+
+        avanzar(10);
+        assertEquals(0, limitador.segundosDeEspera("10.0.0.1", "ana"));
+    }
+
+    @Test
+    void bloqueaConEsperaCrecienteTrasFallosSeguidos() {
+        for (int i = 0; i < 3; i++) {
+            limitador.registrarFallo("10.0.0.2", "ana");
+        }
+        assertEquals(30, limitador.segundosDeEspera("10.0.0.9", "ana"));
+
+        avanzar(30);
+        limitador.registrarFallo("10.0.0.2", "ana");
+        assertEquals(60, limitador.segundosDeEspera("10.0.0.2", "otro"));
+
+        // El bloqueo no supera el máximo
+        limitador.registrarFallo("10.0.0.2", "ana");
+        limitador.registrarFallo("10.0.0.2", "ana");
+        assertEquals(120, limitador.segundosDeEspera("10.0.0.9", "ana"));
+    }
+
+    @Test
+    void unLoginCorrectoReiniciaLosFallosDelLoginYDeLaIp() {
+        limitador.registrarFallo("10.0.0.3", "ana");
+        limitador.registrarFallo("10.0.0.3", "ana");
+        limitador.registrarExito("10.0.0.3", "ana");
+        limitador.registrarFallo("10.0.0.4", "ana");
+
+        // Sin el éxito serían 3 fallos seguidos y el login estaría bloqueado
+        assertEquals(0, limitador.segundosDeEspera("10.0.0.5", "ana"));
+
+        // Lo mismo para la IP compartida por varios usuarios
+        limitador.registrarFallo("10.0.0.3", "bruno");
+        limitador.registrarFallo("10.0.0.3", "carla");
+        assertEquals(0, limitador.segundosDeEspera("10.0.0.3", "diego"));
+    }
+
+    private void avanzar(long segundos) {
+        reloj.addAndGet(TimeUnit.SECONDS.toNanos(segundos));
+    }
+}
@@ -0,0 +1,102 @@
+package med.voll.api.infra.security;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.usuario.RoleEnum;
+import med.voll.api.domain.usuario.Usuario;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final String SECRETO_V1 = "secreto-v1-con-al-menos-256-bits-de-longitud";
+    private static final String SECRETO_V2 = "secreto-v2-con-al-menos-256-bits-de-longitud";
+
+    private final Usuario usuario = new Usuario(1L, "ana", "clave", RoleEnum.ROLE_ADMIN, null);
+
+    @Test
+    void generaYValidaToken() {
+        TokenService tokenService = new TokenService(SECRETO_V1, "v1", "", Duration.ofHours(1), new SimpleMeterRegistry());
+
+        String token = tokenService.gerarToken(usuario);
+
+        assertTrue(tokenService.validarToken(token));
+        assertEquals("ana", tokenService.getUsernameFromToken(token));
+    }
+
+    @Test
+    void verificaTokenYDevuelveSusClaims() {
+        TokenService tokenService = new TokenService(SECRETO_V1, "v1", "", Duration.ofHours(1), new SimpleMeterRegistry());
+
+        UsuarioAutenticado verificado = tokenService.verificarToken(tokenService.gerarToken(usuario));
+
+        assertEquals("ana", verificado.login());
+        assertEquals(1L, verificado.id());
+        assertEquals("ROLE_ADMIN", verificado.rol());
+        assertTrue(verificado.expiracion().isAfter(Instant.now()));
+    }
+
+    @Test
+    void aceptaTokensDeLaClaveAnteriorTrasRotar() {
+        TokenService tokenService = new TokenService(SECRETO_V1, "v1", "", Duration.ofHours(1), new SimpleMeterRegistry());
+        String tokenAnterior = tokenService.gerarToken(usuario);
+
+        tokenService.rotarClaves("v2", Map.of("v1", SECRETO_V1, "v2", SECRETO_V2));
+        String tokenNuevo = tokenService.gerarToken(usuario);
+
+        assertTrue(tokenService.validarToken(tokenAnterior));
+        assertTrue(tokenService.validarToken(tokenNuevo));
+    }
+
+    @Test
+    void rechazaTokensDeUnaClaveRetirada() {
+        TokenService tokenService = new TokenService(SECRETO_V1, "v1", "", Duration.ofHours(1), new SimpleMeterRegistry());
+        String tokenAnterior = tokenService.gerarToken(usuario);
+
+        tokenService.rotarClaves("v2", Map.of("v2", SECRETO_V2));
+
+        assertThrows(JwtException.class, () -> tokenService.validarToken(tokenAnterior));
+    }
+
+    @Test
+    void cargaClavesAnterioresDesdeLaConfiguracion() {
+        String tokenAnterior = new TokenService(SECRETO_V1, "v1", "", Duration.ofHours(1), new SimpleMeterRegistry()).gerarToken(usuario);
+
+        TokenService tokenService = new TokenService(SECRETO_V2, "v2", "v1:" + SECRETO_V1, Duration.ofHours(1), new SimpleMeterRegistry());
+
+        assertEquals("ana", tokenService.getUsernameFromToken(tokenAnterior));
+    }
+
+    @Test
+    void recargaLasClavesCuandoCambiaElArchivo(@TempDir Path directorio) throws IOException {
+        TokenService tokenService = new TokenService(SECRETO_V1, "v1", "", Duration.ofHours(1), new SimpleMeterRegistry());
+        String tokenAnterior = tokenService.gerarToken(usuario);
+        Path archivo = directorio.resolve("claves.properties");
+        RecargaClavesFirma recarga = new RecargaClavesFirma(tokenService, archivo.toString());
+
+        Files.writeString(archivo, "kid=v2\nclaves=v1:" + SECRETO_V1 + ",v2:" + SECRETO_V2 + "\n");
+        recarga.recargar();
+        String tokenNuevo = tokenService.gerarToken(usuario);
+        assertTrue(tokenService.validarToken(tokenAnterior));
+        assertTrue(tokenService.validarToken(tokenNuevo));
+
+        // Un archivo inválido conserva las claves en uso; al retirar v1 sus tokens dejan de aceptarse
+        Files.writeString(archivo, "kid=v3\nclaves=v2:" + SECRETO_V2 + "\n");
+        recarga.recargar();
+        assertTrue(tokenService.validarToken(tokenAnterior));
+
+        Files.writeString(archivo, "kid=v2\nclaves=v2:" + SECRETO_V2 + "\n");
+        recarga.recargar();
+        assertThrows(JwtException.class, () -> tokenService.validarToken(tokenAnterior));
+        assertTrue(tokenService.validarToken(tokenNuevo));
+    }
+}
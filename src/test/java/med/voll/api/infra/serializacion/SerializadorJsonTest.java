@@ -0,0 +1,46 @@
+package med.voll.api.infra.serializacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import med.voll.api.domain.medico.DatosListadoMedico;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializadorJsonTest {
+
+    private final SerializadorJson serializadorJson = new SerializadorJson(new ObjectMapper(), new SimpleMeterRegistry(), 100);
+
+    @Test
+    void reutilizaLosBytesDeLaMismaInstanciaCacheada() {
+        DatosListadoMedico medico = new DatosListadoMedico(1L, "Ana", "cardiologia", "123", "ana@voll.med");
+
+        byte[] primero = serializadorJson.jsonDeCache(medico).fragmentos()[0];
+        assertSame(primero, serializadorJson.jsonDeCache(medico).fragmentos()[0]);
+
+        // Una instancia igual pero distinta, o una respuesta sin cache, se serializa de nuevo
+        DatosListadoMedico igual = new DatosListadoMedico(1L, "Ana", "cardiologia", "123", "ana@voll.med");
+        assertNotSame(primero, serializadorJson.jsonDeCache(igual).fragmentos()[0]);
+        assertNotSame(primero, serializadorJson.json(medico).fragmentos()[0]);
+    }
+
+    @Test
+    void elSobreEscapaLosTextosYNoCopiaElContenido() {
+        PlantillaSobre plantilla = PlantillaSobre.de("CREATED", "Dijo \"hola\"\ny se fue \\ ñ", "médico");
+        byte[] contenido = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        JsonSerializado sobre = plantilla.envolver(contenido);
+
+        assertSame(contenido, sobre.fragmentos()[1]);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        for (byte[] fragmento : sobre.fragmentos()) {
+            salida.writeBytes(fragmento);
+        }
+        String json = salida.toString(StandardCharsets.UTF_8);
+        assertEquals("{\"code\":\"CREATED\",\"message\":\"Dijo \\\"hola\\\"\\ny se fue \\\\ ñ\",\"médico\":{\"id\":1}}", json);
+        assertEquals(salida.size(), sobre.longitud());
+    }
+}